@@ -0,0 +1,25 @@
+import benchmarks.CheckOutBenchmark;
+
+import java.time.LocalDate;
+
+public class CheckOutWorkload implements CheckOutBenchmark.Workload {
+    private Room room;
+    private Guest guest;
+    private LocalDate checkIn;
+    private LocalDate today;
+
+    @Override
+    public void setUp(int nights) {
+        Hotel hotel = new Hotel().generateRooms(10, 10, 4, 100);
+        room = hotel.store.room(0);
+        guest = hotel.guest("Guest");
+        today = LocalDate.now();
+        checkIn = today.minusDays(nights);
+    }
+
+    @Override
+    public long stayAndCheckOut() {
+        room.tryRent(guest, checkIn);
+        return room.checkOut(today);
+    }
+}
@@ -0,0 +1,21 @@
+import benchmarks.CommandRegistryBenchmark;
+
+public class CommandRegistryWorkload implements CommandRegistryBenchmark.Workload {
+    private CommandRegistry registry;
+
+    @Override
+    public void setUp(String registration) {
+        registry = new CommandRegistry(new Hotel());
+        switch (registration) {
+            case "instance" -> registry.registerCommand("view", new ViewCommand());
+            case "factory" -> registry.registerCommand("view", ViewCommand::new);
+            case "class" -> registry.registerCommand("view", ViewCommand.class);
+            default -> throw new IllegalArgumentException("Unknown registration: " + registration);
+        }
+    }
+
+    @Override
+    public Object createCommand() {
+        return registry.createCommand("view");
+    }
+}
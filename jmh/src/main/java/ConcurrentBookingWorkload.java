@@ -0,0 +1,29 @@
+import benchmarks.ConcurrentBookingBenchmark;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+public class ConcurrentBookingWorkload implements ConcurrentBookingBenchmark.Workload {
+    private Hotel hotel;
+
+    @Override
+    public void setUp(int floors, int roomsPerFloor) {
+        hotel = new Hotel().generateRooms(floors, roomsPerFloor, 4, 100);
+    }
+
+    @Override
+    public ConcurrentBookingBenchmark.Desk desk(int id) {
+        Guest guest = hotel.guest("Desk " + id);
+        SplittableRandom random = new SplittableRandom(id);
+        LocalDate today = LocalDate.now();
+        int rooms = hotel.store.size();
+        return () -> {
+            Room room = hotel.store.room(random.nextInt(rooms));
+            if (!room.tryRent(guest)) {
+                return false;
+            }
+            room.checkOut(today);
+            return true;
+        };
+    }
+}
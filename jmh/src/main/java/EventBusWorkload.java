@@ -0,0 +1,48 @@
+import benchmarks.EventBusBenchmark;
+
+import java.time.LocalDate;
+
+public class EventBusWorkload implements EventBusBenchmark.Workload {
+    private final Hotel hotel = new Hotel().generateRooms(1, 10, 2, 100);
+    private final Guest guest = new Guest("Ann");
+    private final LocalDate today = LocalDate.now();
+    private EventBus events;
+    // Written by the consumers so their work is not optimized away
+    private volatile long handled;
+
+    @Override
+    public void setUp(int consumers) {
+        if (consumers == 0) {
+            return;
+        }
+        events = new EventBus(1 << 14);
+        for (int i = 0; i < consumers; i++) {
+            events.addConsumer("consumer-" + i, (event, sequence, endOfBatch) -> {
+                if (endOfBatch) handled = sequence;
+            }, WaitStrategy.SLEEPING);
+        }
+        hotel.events = events;
+    }
+
+    @Override
+    public void publish() {
+        if (events != null) {
+            events.publish(HotelEvent.RENTED, 101, "Ann", today.toEpochDay(), 0);
+        }
+    }
+
+    @Override
+    public long book() {
+        Room room = hotel.rooms.get(1);
+        room.tryRent(guest, today);
+        return room.checkOut(today);
+    }
+
+    @Override
+    public void tearDown() {
+        if (events != null) {
+            hotel.events = null;
+            events.close();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+import benchmarks.GenerateRoomsBenchmark;
+
+public class GenerateRoomsWorkload implements GenerateRoomsBenchmark.Workload {
+    @Override
+    public Object generate(int floors, int roomsPerFloor) {
+        return new Hotel().generateRooms(floors, roomsPerFloor, 4, 100);
+    }
+}
@@ -0,0 +1,39 @@
+import benchmarks.ImportBenchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+public class ImportWorkload implements ImportBenchmark.Workload {
+    private CsvImporter.Kind kind;
+    private String text;
+
+    @Override
+    public void setUp(String kind, int lines) {
+        this.kind = CsvImporter.Kind.valueOf(kind.toUpperCase());
+        StringBuilder csv = new StringBuilder(lines * 12);
+        for (int i = 0; i < lines; i++) {
+            if (this.kind == CsvImporter.Kind.ROOMS) {
+                csv.append(i / Hotel.MAX_ROOMS_PER_FLOOR).append(',').append(1 + i % 4).append(',').append(100 + i % 50);
+            } else {
+                csv.append("Guest").append(i);
+            }
+            csv.append('\n');
+        }
+        text = csv.toString();
+    }
+
+    @Override
+    public long load() {
+        CsvImporter importer = new CsvImporter(new Hotel(), kind);
+        try {
+            importer.run(new BufferedReader(new StringReader(text), 1 << 16), new PrintWriter(new StringWriter()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return importer.getImported();
+    }
+}
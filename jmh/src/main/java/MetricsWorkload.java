@@ -0,0 +1,32 @@
+import benchmarks.MetricsBenchmark;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+
+public class MetricsWorkload implements MetricsBenchmark.Workload {
+    private static final String[] NO_ARGS = new String[0];
+
+    private final PrintWriter out = new PrintWriter(Writer.nullWriter());
+    private final Command command = new Command() {
+        @Override
+        public void execute() {
+        }
+    };
+    private final LatencyHistogram latency = new LatencyHistogram("noop");
+    private final Command timed = new TimedCommand(command, latency, new HotelMetrics());
+
+    @Override
+    public void bare() {
+        command.execute(NO_ARGS, out);
+    }
+
+    @Override
+    public void timed() {
+        timed.execute(NO_ARGS, out);
+    }
+
+    @Override
+    public void record(long nanos) {
+        latency.record(nanos);
+    }
+}
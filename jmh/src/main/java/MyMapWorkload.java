@@ -0,0 +1,56 @@
+import benchmarks.MyMapBenchmark;
+
+public class MyMapWorkload implements MyMapBenchmark.Workload {
+    // Steps through the keys in a scattered order, so lookups do not walk the table in sequence
+    private static final int STRIDE = 7919;
+
+    private String[] keys;
+    private String[] missing;
+    private MyMap<String, String> map;
+    private int next;
+
+    @Override
+    public void setUp(int size) {
+        keys = new String[size];
+        missing = new String[size];
+        map = new MyMap<>();
+        for (int i = 0; i < size; i++) {
+            keys[i] = "guest-" + i;
+            missing[i] = "visitor-" + i;
+            map.put(keys[i], keys[i]);
+        }
+    }
+
+    private int nextIndex() {
+        next += STRIDE;
+        if (next >= keys.length) {
+            next %= keys.length;
+        }
+        return next;
+    }
+
+    @Override
+    public Object get() {
+        return map.get(keys[nextIndex()]);
+    }
+
+    @Override
+    public boolean containsMissing() {
+        return map.containsKey(missing[nextIndex()]);
+    }
+
+    @Override
+    public Object put() {
+        int i = nextIndex();
+        return map.put(keys[i], keys[i]);
+    }
+
+    @Override
+    public Object fill() {
+        MyMap<String, String> filled = new MyMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            filled.put(keys[i], keys[i]);
+        }
+        return filled;
+    }
+}
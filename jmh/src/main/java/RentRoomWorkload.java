@@ -0,0 +1,32 @@
+import benchmarks.RentRoomBenchmark;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+public class RentRoomWorkload implements RentRoomBenchmark.Workload {
+    private Hotel hotel;
+    private Guest guest;
+    private LocalDate today;
+
+    @Override
+    public void setUp(int floors, int roomsPerFloor, int occupancyPercent) {
+        hotel = new Hotel().generateRooms(floors, roomsPerFloor, 4, 100);
+        guest = hotel.guest("Guest");
+        today = LocalDate.now();
+        Random random = new Random(42);
+        int rooms = floors * roomsPerFloor;
+        for (int occupied = 0; occupied < rooms * occupancyPercent / 100; ) {
+            Room room = hotel.store.room(random.nextInt(rooms));
+            if (room.tryRent(hotel.guest("Resident " + occupied))) {
+                occupied++;
+            }
+        }
+    }
+
+    @Override
+    public long rentAndCheckOut() {
+        // Hotel.rentRoom(Guest) prints to the console, assignRoom is the booking it reports on
+        Room room = hotel.assignRoom(guest);
+        return room.checkOut(today);
+    }
+}
@@ -0,0 +1,83 @@
+import benchmarks.ReportBenchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+public class ReportWorkload implements ReportBenchmark.Workload {
+    private Hotel hotel;
+    // Stands in for System.out, which flushes on every line
+    private final PrintStream console = new PrintStream(OutputStream.nullOutputStream(), true);
+    private final PrintWriter out = new PrintWriter(Writer.nullWriter());
+
+    @Override
+    public void setUp(int floors, int roomsPerFloor) {
+        hotel = new Hotel().generateRooms(floors, roomsPerFloor, 4, 100);
+        for (int ordinal = 0; ordinal < hotel.store.size(); ordinal += 2) {
+            Room room = hotel.store.room(ordinal);
+            room.tryRent(hotel.guest("Guest " + ordinal));
+            if (ordinal % 4 == 0) {
+                room.addGuest(hotel.guest("Partner " + ordinal));
+            }
+        }
+    }
+
+    @Override
+    public void legacyList() {
+        for (int ordinal = 0; ordinal < hotel.store.size(); ordinal++) {
+            legacyPrint(hotel.store.room(ordinal));
+        }
+    }
+
+    // Room.print as it was before the renderer
+    private void legacyPrint(Room room) {
+        int roomId = room.getRoomId();
+        boolean occupied = room.isOccupied();
+        console.println();
+        String id = roomId > 100 ? roomId + "" : "0" + roomId;
+        id = roomId < 10 ? "0" + id : id;
+        console.print("RoomID: " + id + "\n" +
+                "Price: " + room.getPrice() + "\n" +
+                "Occupied: " + occupied + "\n");
+        Guest[] extraGuests = room.getExtraGuests();
+        if (occupied && extraGuests.length == 0) console.println("Guest : " + room.getGuest().getName());
+        else if (occupied) {
+            console.print("Guests : " + room.getGuest().getName());
+            for (Guest g : extraGuests) {
+                console.print(", " + g.getName());
+            }
+            console.print("\n ");
+        }
+    }
+
+    @Override
+    public void renderedList() {
+        ReportRenderer renderer = new ReportRenderer(out);
+        for (int ordinal = 0; ordinal < hotel.store.size(); ordinal++) {
+            renderer.room(hotel.store.room(ordinal));
+        }
+        renderer.flush();
+    }
+
+    @Override
+    public void cachedList() {
+        hotel.list(out);
+    }
+
+    @Override
+    public void legacyPrices() {
+        for (int ordinal = 0; ordinal < hotel.store.size(); ordinal++) {
+            Room room = hotel.store.room(ordinal);
+            int roomId = room.getRoomId();
+            // Room.toStringPrices as it was before the renderer
+            String id = roomId > 100 ? roomId + "" : "00" + roomId;
+            console.println("RoomID: " + id + " Price: " + room.getPrice());
+        }
+    }
+
+    @Override
+    public void renderedPrices() {
+        hotel.prices(out);
+    }
+}
@@ -0,0 +1,45 @@
+import benchmarks.RoomLookupBenchmark;
+
+import java.time.LocalDate;
+
+public class RoomLookupWorkload implements RoomLookupBenchmark.Workload {
+    // Steps through the rooms in a scattered order, so lookups do not walk the table in sequence
+    private static final int STRIDE = 7919;
+
+    private Hotel hotel;
+    private int[] roomIds;
+    private Guest guest;
+    private LocalDate today;
+    private int next;
+
+    @Override
+    public void setUp(int floors, int roomsPerFloor) {
+        hotel = new Hotel().generateRooms(floors, roomsPerFloor, 4, 100);
+        roomIds = new int[hotel.store.size()];
+        for (int ordinal = 0; ordinal < roomIds.length; ordinal++) {
+            roomIds[ordinal] = hotel.store.roomId(ordinal);
+        }
+        guest = hotel.guest("Guest");
+        today = LocalDate.now();
+    }
+
+    private int nextRoomId() {
+        next += STRIDE;
+        if (next >= roomIds.length) {
+            next %= roomIds.length;
+        }
+        return roomIds[next];
+    }
+
+    @Override
+    public Object findRoom() {
+        return hotel.rooms.get(nextRoomId());
+    }
+
+    @Override
+    public long rentById() {
+        int roomId = nextRoomId();
+        hotel.rentRoom(guest, roomId);
+        return hotel.rooms.get(roomId).checkOut(today);
+    }
+}
@@ -0,0 +1,133 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of the TCP server: opens many connections at once, each sending a mix of view, list, checkin
+ * and checkout commands, and reports the throughput and the latency percentiles of every command.
+ * The server runs in the same process on a hotel of 10 floors with 10 rooms each, as Main creates; the run
+ * exits with status 1 if the server fails while it is under load.
+ *
+ * Usage: java -cp jmh/target/benchmarks.jar ServerLoadTest [connections] [requests per connection]
+ */
+public class ServerLoadTest {
+    private static final String[] COMMANDS = {"view", "list", "checkin", "checkout"};
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        Hotel hotel = new Hotel().generateRooms(10, 10, 4, 100);
+        CommandRegistry commands = new CommandRegistry(hotel);
+        commands.registerCommand("view", new ViewCommand());
+        commands.registerCommand("list", new ListCommand());
+        commands.registerCommand("checkin", new CheckInCommand());
+        commands.registerCommand("checkout", new CheckOutCommand());
+        LatencyHistogram[] latencies = new LatencyHistogram[COMMANDS.length];
+        for (int i = 0; i < COMMANDS.length; i++) {
+            latencies[i] = new LatencyHistogram(COMMANDS[i]);
+        }
+        AtomicLong errors = new AtomicLong();
+        AtomicBoolean serverFailed = new AtomicBoolean();
+
+        try (HotelServer server = new HotelServer(commands, 0)) {
+            Thread acceptor = new Thread(() -> {
+                try {
+                    server.run();
+                } catch (IOException e) {
+                    errors.incrementAndGet();
+                    serverFailed.set(true);
+                    System.err.println("The server failed: " + e.getMessage());
+                }
+            }, "load-test-server");
+            acceptor.start();
+
+            CountDownLatch connected = new CountDownLatch(connections);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> clients = new ArrayList<>(connections);
+            for (int c = 0; c < connections; c++) {
+                int client = c;
+                Thread thread = new Thread(null, () -> {
+                    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+                         BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                         PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+                        connected.countDown();
+                        start.await();
+                        int room = 100 * (client % 10) + client / 10 % 10 + 1;
+                        for (int r = 0; r < requests; r++) {
+                            int command = (client + r) % COMMANDS.length;
+                            String line = switch (COMMANDS[command]) {
+                                case "view" -> "view " + room;
+                                case "checkin" -> "checkin " + room + " Guest" + client;
+                                case "checkout" -> "checkout " + room;
+                                default -> COMMANDS[command];
+                            };
+                            long begin = System.nanoTime();
+                            out.println(line);
+                            out.flush();
+                            if (!readResponse(in)) {
+                                errors.incrementAndGet();
+                            }
+                            latencies[command].record(System.nanoTime() - begin);
+                        }
+                        out.println("exit");
+                        out.flush();
+                    } catch (IOException | InterruptedException e) {
+                        errors.incrementAndGet();
+                        connected.countDown();
+                    }
+                }, "load-test-client-" + c, 256 << 10);
+                thread.start();
+                clients.add(thread);
+            }
+            connected.await();
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Thread thread : clients) {
+                thread.join();
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            long total = (long) connections * requests;
+            System.out.printf("%d connections, %d requests in %.2f s: %.0f requests/s, %d errors%n",
+                    connections, total, seconds, total / seconds, errors.get());
+            System.out.println("command       count    p50 ms    p99 ms   p999 ms    max ms");
+            for (LatencyHistogram latency : latencies) {
+                System.out.printf("%-10s %8d %9.2f %9.2f %9.2f %9.2f%n", latency.getName(), latency.getCount(),
+                        latency.getP50Nanos() / 1e6, latency.getP99Nanos() / 1e6,
+                        latency.getP999Nanos() / 1e6, latency.getMaxNanos() / 1e6);
+            }
+        }
+        if (serverFailed.get()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads the output of one command up to its status line.
+     *
+     * @param in The connection's input.
+     * @return True if the command succeeded, false if it failed; a checkin of a taken room fails by design.
+     * @throws IOException If the connection is closed before the status line.
+     */
+    private static boolean readResponse(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.equals("OK")) {
+                return true;
+            }
+            if (line.startsWith("ERROR ")) {
+                return false;
+            }
+        }
+        throw new IOException("Connection closed");
+    }
+}
@@ -0,0 +1,53 @@
+import benchmarks.ShardedHotelBenchmark;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+
+public class ShardedHotelWorkload implements ShardedHotelBenchmark.Workload {
+    private ShardedHotel hotel;
+
+    @Override
+    public void setUp(int shards, int floors, int roomsPerFloor) {
+        hotel = new ShardedHotel(shards);
+        hotel.generateRooms(floors, roomsPerFloor, 4, 100);
+    }
+
+    @Override
+    public ShardedHotelBenchmark.Desk desk(int id) {
+        String guest = "Desk " + id;
+        return () -> {
+            int roomId = hotel.rentRoom(guest);
+            hotel.checkOut(roomId);
+            return roomId;
+        };
+    }
+
+    @Override
+    public long list() {
+        CountingWriter counter = new CountingWriter();
+        hotel.list(new PrintWriter(counter));
+        return counter.count;
+    }
+
+    @Override
+    public void tearDown() {
+        hotel.close();
+    }
+
+    private static final class CountingWriter extends Writer {
+        private long count;
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
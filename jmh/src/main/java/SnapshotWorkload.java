@@ -0,0 +1,37 @@
+import benchmarks.SnapshotBenchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class SnapshotWorkload implements SnapshotBenchmark.Workload {
+    private Path file;
+
+    @Override
+    public void setUp(int rooms) {
+        int floors = (rooms + Hotel.MAX_ROOMS_PER_FLOOR - 1) / Hotel.MAX_ROOMS_PER_FLOOR;
+        Hotel hotel = new Hotel().generateRooms(floors, Hotel.MAX_ROOMS_PER_FLOOR, 4, 100);
+        for (int ordinal = 0; ordinal < hotel.store.size(); ordinal += 2) {
+            hotel.store.room(ordinal).tryRent(hotel.guest("Guest" + ordinal));
+        }
+        try {
+            file = Files.createTempFile("hotel", ".snapshot");
+            file.toFile().deleteOnExit();
+            Snapshot.write(hotel, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int read() {
+        Hotel hotel = new Hotel();
+        try {
+            Snapshot.read(file, hotel);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return hotel.store.size();
+    }
+}
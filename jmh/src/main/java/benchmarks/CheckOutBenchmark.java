@@ -0,0 +1,50 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking out of a room after a stay of a given number of nights, billing the stay.
+ * The room is rented again first in the same operation, since a check-out needs a stay.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckOutBenchmark {
+    @Param({"1", "30"})
+    int nights;
+
+    private Workload workload;
+
+    public interface Workload {
+        void setUp(int nights);
+
+        /** Rents the room from the given number of nights ago and checks it out today, returning the charge. */
+        long stayAndCheckOut();
+    }
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "CheckOutWorkload");
+        workload.setUp(nights);
+    }
+
+    @Benchmark
+    public long checkOut() {
+        return workload.stayAndCheckOut();
+    }
+}
@@ -0,0 +1,50 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking a command up by name, for each way of registering it: a shared instance, a factory creating one
+ * per use, or a class created through its constructor per use.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandRegistryBenchmark {
+    @Param({"instance", "factory", "class"})
+    String registration;
+
+    private Workload workload;
+
+    public interface Workload {
+        void setUp(String registration);
+
+        /** Creates the view command. */
+        Object createCommand();
+    }
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "CommandRegistryWorkload");
+        workload.setUp(registration);
+    }
+
+    @Benchmark
+    public Object createCommand() {
+        return workload.createCommand();
+    }
+}
@@ -0,0 +1,88 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking throughput of one hotel of 9900 rooms shared by 1, 2, 4 and 8 desks. Every operation rents a random
+ * room by id and checks it out again if the desk got it. The throughput should grow with the desks up to the
+ * number of cores, since desks on different floors take different locks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentBookingBenchmark {
+    public interface Workload {
+        void setUp(int floors, int roomsPerFloor);
+
+        /** Creates the state of one desk. */
+        Desk desk(int id);
+    }
+
+    public interface Desk {
+        /** Rents a random room and checks it out again, returning whether the room was free. */
+        boolean book();
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedHotel {
+        Workload workload;
+
+        @Setup
+        public void setUp() {
+            workload = Workloads.create(Workload.class, "ConcurrentBookingWorkload");
+            workload.setUp(100, 99);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DeskState {
+        private static int nextId;
+
+        Desk desk;
+
+        @Setup
+        public void setUp(SharedHotel hotel) {
+            synchronized (DeskState.class) {
+                desk = hotel.workload.desk(nextId++);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean desks1(DeskState state) {
+        return state.desk.book();
+    }
+
+    @Benchmark
+    @Threads(2)
+    public boolean desks2(DeskState state) {
+        return state.desk.book();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean desks4(DeskState state) {
+        return state.desk.book();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean desks8(DeskState state) {
+        return state.desk.book();
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishing on the event bus with 0, 1 and 4 sleeping consumers attached, on its own and on the booking path:
+ * renting a room and checking it out publishes two events. With no consumers the hotel has no bus at all.
+ * The cost should stay flat as consumers are added.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark {
+    @Param({"0", "1", "4"})
+    int consumers;
+
+    private Workload workload;
+
+    public interface Workload {
+        void setUp(int consumers);
+
+        /** Publishes one event, a no-op without consumers. */
+        void publish();
+
+        /** Rents a room and checks it out again. */
+        long book();
+
+        /** Stops the consumers. */
+        void tearDown();
+    }
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "EventBusWorkload");
+        workload.setUp(consumers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        workload.tearDown();
+    }
+
+    @Benchmark
+    public void publish() {
+        workload.publish();
+    }
+
+    @Benchmark
+    public long book() {
+        return workload.book();
+    }
+}
@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generating a new hotel with 99 rooms on every floor, up to a million rooms on 10102 floors.
+ * The time per room should stay flat as the hotel grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GenerateRoomsBenchmark {
+    @Param({"10", "1000", "10102"})
+    int floors;
+
+    private Workload workload;
+
+    public interface Workload {
+        /** Generates a new hotel and returns it. */
+        Object generate(int floors, int roomsPerFloor);
+    }
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "GenerateRoomsWorkload");
+    }
+
+    @Benchmark
+    public Object generateRooms() {
+        return workload.generate(floors, 99);
+    }
+}
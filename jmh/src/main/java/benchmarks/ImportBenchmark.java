@@ -0,0 +1,54 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importing a CSV file of rooms or guests into a new hotel, from text held in memory so the disk is left out.
+ * Rooms are 99 to a floor; the time per line should stay flat as the file grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ImportBenchmark {
+    @Param({"rooms", "guests"})
+    String kind;
+
+    @Param({"100000", "1000000"})
+    int lines;
+
+    private Workload workload;
+
+    public interface Workload {
+        /** Builds the CSV text of the given kind and number of lines. */
+        void setUp(String kind, int lines);
+
+        /** Imports the text into a new hotel and returns the number of records loaded. */
+        long load();
+    }
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "ImportWorkload");
+        workload.setUp(kind, lines);
+    }
+
+    @Benchmark
+    public long load() {
+        return workload.load();
+    }
+}
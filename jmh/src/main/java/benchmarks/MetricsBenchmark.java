@@ -0,0 +1,67 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the metrics cost on the command path: a command that does nothing, run bare and run timed into a
+ * latency histogram, and recording into one histogram from one and from four threads.
+ * The difference between bare and timed is the overhead every command pays while metrics are on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    private Workload workload;
+
+    public interface Workload {
+        /** Runs a command that does nothing. */
+        void bare();
+
+        /** Runs the same command wrapped in a timed command. */
+        void timed();
+
+        /** Records one latency into a shared histogram. */
+        void record(long nanos);
+    }
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "MetricsWorkload");
+    }
+
+    @Benchmark
+    public void bare() {
+        workload.bare();
+    }
+
+    @Benchmark
+    public void timed() {
+        workload.timed();
+    }
+
+    @Benchmark
+    public void record() {
+        workload.record(1234);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void record4() {
+        workload.record(1234);
+    }
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups and updates of MyMap with guest names as keys, at several sizes.
+ * A constant cost per operation across the sizes shows the map stays hashed as it grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MyMapBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    private Workload workload;
+
+    public interface Workload {
+        void setUp(int size);
+
+        /** Looks up a key in the map. */
+        Object get();
+
+        /** Looks up a key that is not in the map. */
+        boolean containsMissing();
+
+        /** Replaces the value of a key in the map. */
+        Object put();
+
+        /** Fills a new map with as many keys as the map of the benchmark. */
+        Object fill();
+    }
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "MyMapWorkload");
+        workload.setUp(size);
+    }
+
+    @Benchmark
+    public Object get() {
+        return workload.get();
+    }
+
+    @Benchmark
+    public boolean containsKey() {
+        return workload.containsMissing();
+    }
+
+    @Benchmark
+    public Object put() {
+        return workload.put();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object fill() {
+        return workload.fill();
+    }
+}
@@ -0,0 +1,50 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renting the first free room of a hotel of 9900 rooms, with a given share of its rooms already occupied
+ * at random. The rented room is checked out again in the same operation, so the occupancy stays put.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RentRoomBenchmark {
+    @Param({"0", "50", "90", "99"})
+    int occupancyPercent;
+
+    private Workload workload;
+
+    public interface Workload {
+        void setUp(int floors, int roomsPerFloor, int occupancyPercent);
+
+        /** Rents the first free room and checks it out again, returning the charge. */
+        long rentAndCheckOut();
+    }
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "RentRoomWorkload");
+        workload.setUp(100, 99, occupancyPercent);
+    }
+
+    @Benchmark
+    public long rentRoom() {
+        return workload.rentAndCheckOut();
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The list and prices reports of a hotel with half of its rooms occupied, written to an output that discards
+ * them. The legacy benchmarks replay how the reports were printed before the renderer: string concatenation
+ * and several prints per room on an auto-flushing console stream.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportBenchmark {
+    @Param({"10", "1000"})
+    int floors;
+
+    private Workload workload;
+
+    public interface Workload {
+        void setUp(int floors, int roomsPerFloor);
+
+        void legacyList();
+
+        /** Lists every room through the renderer, rendering each room again. */
+        void renderedList();
+
+        /** Lists every room through Hotel.list, which serves unchanged rooms from the render cache. */
+        void cachedList();
+
+        void legacyPrices();
+
+        void renderedPrices();
+    }
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "ReportWorkload");
+        workload.setUp(floors, 99);
+    }
+
+    @Benchmark
+    public void legacyList() {
+        workload.legacyList();
+    }
+
+    @Benchmark
+    public void renderedList() {
+        workload.renderedList();
+    }
+
+    @Benchmark
+    public void cachedList() {
+        workload.cachedList();
+    }
+
+    @Benchmark
+    public void legacyPrices() {
+        workload.legacyPrices();
+    }
+
+    @Benchmark
+    public void renderedPrices() {
+        workload.renderedPrices();
+    }
+}
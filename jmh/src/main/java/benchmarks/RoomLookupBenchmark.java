@@ -0,0 +1,59 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking rooms up by id, and renting a room by id, in hotels of 99 rooms per floor with more and more floors.
+ * The cost per operation should not follow the number of rooms; what it grows by comes from tables
+ * that no longer fit in the CPU caches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RoomLookupBenchmark {
+    @Param({"10", "1000", "10000"})
+    int floors;
+
+    private Workload workload;
+
+    public interface Workload {
+        void setUp(int floors, int roomsPerFloor);
+
+        /** Looks up the next room, scattered over the hotel. */
+        Object findRoom();
+
+        /** Rents the next room by its id and checks it out again. */
+        long rentById();
+    }
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "RoomLookupWorkload");
+        workload.setUp(floors, 99);
+    }
+
+    @Benchmark
+    public Object findRoom() {
+        return workload.findRoom();
+    }
+
+    @Benchmark
+    public long rentById() {
+        return workload.rentById();
+    }
+}
@@ -0,0 +1,91 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a hotel of 9900 rooms split into 1, 2 and 4 shards. Four desks book: each operation rents
+ * a room to a guest in the next shard and checks it out again. Listing all rooms streams every shard through
+ * one renderer. Bookings should scale with the shards up to the number of cores; the listing should not
+ * depend on them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShardedHotelBenchmark {
+    public interface Workload {
+        void setUp(int shards, int floors, int roomsPerFloor);
+
+        /** Creates the state of one desk. */
+        Desk desk(int id);
+
+        /** Lists all rooms to a writer that drops them and returns the number of characters written. */
+        long list();
+
+        void tearDown();
+    }
+
+    public interface Desk {
+        /** Rents a room and checks it out again, returning the room id. */
+        int book();
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedHotel {
+        @Param({"1", "2", "4"})
+        int shards;
+
+        Workload workload;
+
+        @Setup
+        public void setUp() {
+            workload = Workloads.create(Workload.class, "ShardedHotelWorkload");
+            workload.setUp(shards, 100, 99);
+        }
+
+        @TearDown
+        public void tearDown() {
+            workload.tearDown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DeskState {
+        private static int nextId;
+
+        Desk desk;
+
+        @Setup
+        public void setUp(SharedHotel hotel) {
+            synchronized (DeskState.class) {
+                desk = hotel.workload.desk(nextId++);
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int book(DeskState state) {
+        return state.desk.book();
+    }
+
+    @Benchmark
+    public long list(SharedHotel hotel) {
+        return hotel.workload.list();
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restoring a hotel from a snapshot, with every other room occupied, as startup does.
+ * read measures a restore once the JVM is warm; firstRead the first restore of a fresh JVM, as a real
+ * startup sees it. Both should grow linearly with the number of rooms.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SnapshotBenchmark {
+    @Param({"100000", "500000"})
+    int rooms;
+
+    private Workload workload;
+
+    public interface Workload {
+        /** Writes the snapshot of a hotel with the given number of rooms, every other one occupied. */
+        void setUp(int rooms);
+
+        /** Restores the snapshot into a new hotel and returns its number of rooms. */
+        int read();
+    }
+
+    @Setup
+    public void setUp() {
+        workload = Workloads.create(Workload.class, "SnapshotWorkload");
+        workload.setUp(rooms);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public int read() {
+        return workload.read();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(value = 5, jvmArgsAppend = "-Xmx2g")
+    public int firstRead() {
+        return workload.read();
+    }
+}
@@ -0,0 +1,28 @@
+package benchmarks;
+
+/**
+ * Creates the workloads the benchmarks drive.
+ * The hotel lives in the unnamed package, which a named package cannot import, and JMH only runs benchmarks
+ * in a named package; so every benchmark declares what it drives as an interface, and a class in the unnamed
+ * package next to it implements that interface on top of the hotel.
+ */
+final class Workloads {
+    private Workloads() {
+    }
+
+    /**
+     * Creates a workload through its no-argument constructor.
+     *
+     * @param type The interface the workload implements.
+     * @param className The name of the workload class, in the unnamed package.
+     * @return The workload.
+     * @throws IllegalStateException If the class cannot be created.
+     */
+    static <T> T create(Class<T> type, String className) {
+        try {
+            return type.cast(Class.forName(className).getConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create workload " + className, e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+import java.time.LocalDate;
+import java.util.BitSet;
+
+/**
+ * Hotel-wide index of reserved rooms per day.
+ * For every day with reservations it keeps a bit set of the reserved rooms, by their ordinal,
+ * so finding the rooms free over a range of days is one bit-set pass per day,
+ * independent of how many reservations there are.
+ * Days before today are dropped on the next write, so the index only grows with the days still ahead.
+ */
+public class AvailabilityIndex {
+    // Reserved room ordinals by epoch day
+    private final IntObjectMap<BitSet> reservedByDay = new IntObjectMap<>();
+    // Days before this one have been dropped and are not kept again
+    private long prunedBefore = Long.MIN_VALUE;
+    // No day before this one has a bit set, Long.MAX_VALUE while no day has
+    private long firstDay = Long.MAX_VALUE;
+
+    /**
+     * Marks a room reserved on every day of the range.
+     *
+     * @param ordinal The ordinal of the room.
+     * @param fromDay The first day, as an epoch day.
+     * @param toDay The day after the last day, as an epoch day.
+     */
+    synchronized void reserve(int ordinal, long fromDay, long toDay) {
+        prune(LocalDate.now().toEpochDay());
+        fromDay = Math.max(fromDay, prunedBefore);
+        if (fromDay < toDay) {
+            firstDay = Math.min(firstDay, fromDay);
+        }
+        for (long day = fromDay; day < toDay; day++) {
+            BitSet reserved = reservedByDay.get((int) day);
+            if (reserved == null) {
+                reserved = new BitSet();
+                reservedByDay.put((int) day, reserved);
+            }
+            reserved.set(ordinal);
+        }
+    }
+
+    /**
+     * Marks a room free again on every day of the range.
+     *
+     * @param ordinal The ordinal of the room.
+     * @param fromDay The first day, as an epoch day.
+     * @param toDay The day after the last day, as an epoch day.
+     */
+    synchronized void release(int ordinal, long fromDay, long toDay) {
+        prune(LocalDate.now().toEpochDay());
+        for (long day = Math.max(fromDay, prunedBefore); day < toDay; day++) {
+            BitSet reserved = reservedByDay.get((int) day);
+            if (reserved != null) {
+                reserved.clear(ordinal);
+            }
+        }
+    }
+
+    /**
+     * Drops the days before the given one. Each day is dropped once, so pruning on every write costs
+     * nothing once the past is gone.
+     *
+     * @param today The first day to keep, as an epoch day.
+     */
+    synchronized void prune(long today) {
+        if (today <= prunedBefore) {
+            return;
+        }
+        for (long day = firstDay; day < today; day++) {
+            reservedByDay.remove((int) day);
+        }
+        prunedBefore = today;
+        firstDay = Math.max(firstDay, today);
+    }
+
+    /**
+     * Returns the rooms not reserved on any day of the range.
+     *
+     * @param rooms The number of rooms in the hotel.
+     * @param fromDay The first day, as an epoch day. Days that have been dropped count as free.
+     * @param toDay The day after the last day, as an epoch day.
+     * @return A new bit set of the ordinals of the free rooms.
+     */
+    synchronized BitSet free(int rooms, long fromDay, long toDay) {
+        BitSet free = new BitSet(rooms);
+        free.set(0, rooms);
+        for (long day = Math.max(fromDay, prunedBefore); day < toDay; day++) {
+            BitSet reserved = reservedByDay.get((int) day);
+            if (reserved != null) {
+                free.andNot(reserved);
+            }
+        }
+        return free;
+    }
+}
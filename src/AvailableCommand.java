@@ -0,0 +1,27 @@
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.util.List;
+
+public class AvailableCommand extends Command {
+    @Override
+    public void execute() {
+        execute(new String[0], hotel.out);
+    }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: available <from> <to>");
+        }
+        LocalDate from = parseDate(args[0]);
+        List<Room> rooms = hotel.availableRooms(from, parseDate(args[1]));
+        // Show the rates of the arrival night, the base prices if it has not been priced
+        PriceTable rates = hotel.rateCalendar.get(from.toEpochDay());
+        out.println("Available rooms: " + rooms.size() + ", priced for the night of " + from);
+        ReportRenderer renderer = new ReportRenderer(out);
+        for (Room room : rooms) {
+            renderer.price(room, rates);
+        }
+        renderer.flush();
+    }
+}
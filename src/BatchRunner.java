@@ -0,0 +1,76 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs commands from a script or a piped stream instead of the interactive prompt.
+ * Every line holds one command followed by its arguments, for example "checkin 305 Alice Bob".
+ * Empty lines and lines starting with '#' are skipped.
+ */
+public class BatchRunner {
+    private final CommandRegistry commands;
+
+    /**
+     * Constructs a batch runner.
+     *
+     * @param commands The registry to look the commands up in, bound to the hotel to work on.
+     */
+    public BatchRunner(CommandRegistry commands) {
+        this.commands = commands;
+    }
+
+    /**
+     * Runs every command read from the input.
+     * A failing command is reported with its line number and does not stop the run.
+     *
+     * @param in The reader to read the commands from.
+     * @param out The writer to print the command output to.
+     * @return The number of commands that failed.
+     * @throws IOException If reading the input fails.
+     */
+    public int run(BufferedReader in, PrintWriter out) throws IOException {
+        int failed = 0;
+        int lineNumber = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            String[] tokens = tokenize(line);
+            if (tokens.length == 0 || tokens[0].startsWith("#")) {
+                continue;
+            }
+            try {
+                Command command = commands.createCommand(tokens[0]);
+                String[] args = new String[tokens.length - 1];
+                System.arraycopy(tokens, 1, args, 0, args.length);
+                command.execute(args, out);
+            } catch (Exception e) {
+                failed++;
+                out.flush();
+                System.err.println("Line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        out.flush();
+        return failed;
+    }
+
+    /**
+     * Splits a command line into words separated by whitespace.
+     *
+     * @param line The line to split.
+     * @return The words of the line.
+     */
+    static String[] tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && Character.isWhitespace(line.charAt(i))) i++;
+            int start = i;
+            while (i < length && !Character.isWhitespace(line.charAt(i))) i++;
+            if (i > start) tokens.add(line.substring(start, i));
+        }
+        return tokens.toArray(new String[0]);
+    }
+}
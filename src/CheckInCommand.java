@@ -1,7 +1,18 @@
+import java.io.PrintWriter;
+import java.util.Arrays;
+
 public class CheckInCommand extends Command {
 
     @Override
     public void execute() {
         hotel.checkIn();
     }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("Usage: checkin <room> <guest> [guest...]");
+        }
+        hotel.checkIn(Hotel.parseRoomId(args[0]), Arrays.asList(args).subList(1, args.length), out);
+    }
 }
@@ -1,6 +1,16 @@
+import java.io.PrintWriter;
+
 public class CheckOutCommand extends Command {
     @Override
     public void execute() {
         hotel.checkOut();
     }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: checkout <room>");
+        }
+        hotel.checkOut(Hotel.parseRoomId(args[0]), out);
+    }
 }
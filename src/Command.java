@@ -1,3 +1,7 @@
+import java.io.PrintWriter;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
 public abstract class Command {
     protected Hotel hotel;
 
@@ -5,4 +9,30 @@ public abstract class Command {
         this.hotel = hotel;
     }
     public abstract void execute();
+
+    /**
+     * Executes the command with the arguments given on the command line, without prompting.
+     * Commands that take no arguments just run as they do interactively.
+     *
+     * @param args The arguments following the command name.
+     * @param out The writer to print the results to.
+     */
+    public void execute(String[] args, PrintWriter out) {
+        execute();
+    }
+
+    /**
+     * Parses a date passed as a command argument.
+     *
+     * @param date The date in the form YYYY-MM-DD.
+     * @return The date.
+     * @throws IllegalArgumentException If the date cannot be parsed.
+     */
+    protected static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + date + ", use YYYY-MM-DD");
+        }
+    }
 }
@@ -1,24 +1,99 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 public class CommandRegistry {
-    private final Map<String, Class<? extends Command>> commandMap = new HashMap<>();
+    private final Map<String, Supplier<? extends Command>> commandMap = new HashMap<>();
+    // Hotel bound to every command handed out, null to leave binding to the caller
+    private final Hotel hotel;
 
+    /**
+     * Constructs a registry whose commands still need a hotel set by the caller.
+     */
+    public CommandRegistry() {
+        this(null);
+    }
+
+    /**
+     * Constructs a registry that binds every command it hands out to the given hotel.
+     * Every command is timed into the hotel's metrics.
+     *
+     * @param hotel The hotel the commands work on.
+     */
+    public CommandRegistry(Hotel hotel) {
+        this.hotel = hotel;
+    }
+
+    /**
+     * Registers a command class, created through its no-argument constructor for every use.
+     * The constructor is looked up once here, so creating a command does not go through reflection.
+     *
+     * @param name The name of the command.
+     * @param commandClass The command class.
+     * @throws IllegalArgumentException If the class has no accessible no-argument constructor.
+     */
     public void registerCommand(String name, Class<? extends Command> commandClass) {
-        commandMap.put(name, commandClass);
+        MethodHandle constructor;
+        try {
+            constructor = MethodHandles.lookup().findConstructor(commandClass, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Command.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("No accessible no-argument constructor in " + commandClass.getName(), e);
+        }
+        registerCommand(name, () -> {
+            try {
+                return (Command) constructor.invokeExact();
+            } catch (Throwable e) {
+                throw new RuntimeException("Failed to create command instance", e);
+            }
+        });
+    }
+
+    /**
+     * Registers a factory creating a new command for every use.
+     *
+     * @param name The name of the command.
+     * @param factory The factory creating the command.
+     */
+    public void registerCommand(String name, Supplier<? extends Command> factory) {
+        if (hotel == null) {
+            commandMap.put(name, factory);
+            return;
+        }
+        LatencyHistogram latency = hotel.metrics.commandLatency(name);
+        commandMap.put(name, () -> bind(new TimedCommand(factory.get(), latency, hotel.metrics)));
+    }
+
+    /**
+     * Registers a command instance that is handed out on every use.
+     * The command must not keep state between executions.
+     *
+     * @param name The name of the command.
+     * @param command The command.
+     */
+    public void registerCommand(String name, Command command) {
+        Command bound = hotel == null ? command
+                : bind(new TimedCommand(command, hotel.metrics.commandLatency(name), hotel.metrics));
+        commandMap.put(name, () -> bound);
     }
 
     public Command createCommand(String commandName){
-        Class<? extends Command> commandClass = commandMap.get(commandName);
+        Supplier<? extends Command> factory = commandMap.get(commandName);
 
 
-        if(commandClass == null){
+        if(factory == null){
             throw new IllegalArgumentException("Unknown command: " + commandName);
         }
-        try{
-            return commandClass.getDeclaredConstructor().newInstance();
-        }catch (Exception e){
-            throw new RuntimeException("Failed to create command instance", e);
+        return factory.get();
+    }
+
+    private Command bind(Command command) {
+        if (hotel != null) {
+            command.setHotel(hotel);
         }
+        return command;
     }
 }
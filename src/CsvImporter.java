@@ -0,0 +1,382 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Loads rooms, guests or current stays into a hotel from CSV files.
+ * Lines are read in chunks and the chunks are parsed on a pool of threads, while the calling thread applies
+ * the parsed chunks to the hotel in file order. Only a few chunks are in flight at a time, so files of any
+ * size are loaded in bounded memory. A line that cannot be parsed or applied is reported and skipped.
+ *
+ * Formats, one record per line, with an optional header line:
+ * rooms: floor,capacity,price
+ * guests: name
+ * stays: room id,guest names separated by ';',check-in date as YYYY-MM-DD
+ */
+public class CsvImporter {
+    /** The kinds of records a file holds. */
+    public enum Kind {
+        ROOMS("floor"), GUESTS("name"), STAYS("room");
+
+        // First field of the optional header line
+        private final String header;
+
+        Kind(String header) {
+            this.header = header;
+        }
+    }
+
+    // Lines parsed by one task
+    private static final int CHUNK_LINES = 8192;
+    // Most errors printed one by one; the rest are only counted
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final Hotel hotel;
+    private final Kind kind;
+    private final int threads;
+    private long imported;
+    // Number of rooms the hotel's storage has been reserved for
+    private int reservedRooms;
+
+    /**
+     * Constructs an importer parsing on one thread per available processor.
+     *
+     * @param hotel The hotel to load the records into.
+     * @param kind The kind of records to load.
+     */
+    public CsvImporter(Hotel hotel, Kind kind) {
+        this(hotel, kind, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an importer.
+     *
+     * @param hotel The hotel to load the records into.
+     * @param kind The kind of records to load.
+     * @param threads The number of threads parsing the lines.
+     */
+    public CsvImporter(Hotel hotel, Kind kind, int threads) {
+        this.hotel = hotel;
+        this.kind = kind;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Loads every record of the input into the hotel.
+     *
+     * @param in The reader to read the CSV lines from.
+     * @param out The writer to report the failing lines to.
+     * @return The number of lines that failed.
+     * @throws IOException If reading the input fails.
+     * @throws IllegalStateException If rooms are to be loaded and the hotel's rooms are fixed, see Hotel.fixRooms.
+     */
+    public int run(BufferedReader in, PrintWriter out) throws IOException {
+        if (kind == Kind.ROOMS && hotel.roomsFixed()) {
+            // Refused before reading, rather than once per line
+            throw new IllegalStateException("Rooms cannot be imported while the hotel is served to other desks.");
+        }
+        ExecutorService parsers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "csv-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<>();
+        int[] failed = new int[1];
+        try {
+            int lineNumber = 0;
+            while (true) {
+                String[] lines = new String[CHUNK_LINES];
+                int count = 0;
+                String line;
+                while (count < CHUNK_LINES && (line = in.readLine()) != null) {
+                    lines[count++] = line;
+                }
+                if (count == 0) {
+                    break;
+                }
+                Chunk chunk = new Chunk(lineNumber + 1, lines, count);
+                lineNumber += count;
+                inFlight.add(parsers.submit(() -> parse(chunk)));
+                if (inFlight.size() >= 2 * threads) {
+                    apply(await(inFlight.poll()), out, failed);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                apply(await(inFlight.poll()), out, failed);
+            }
+        } finally {
+            parsers.shutdownNow();
+        }
+        // The records were journaled one by one, report them once they are all on disk
+        hotel.awaitJournal();
+        if (failed[0] > MAX_REPORTED_ERRORS) {
+            out.println((failed[0] - MAX_REPORTED_ERRORS) + " more failing line(s) not shown");
+        }
+        out.flush();
+        return failed[0];
+    }
+
+    /**
+     * Returns the number of records loaded into the hotel so far.
+     *
+     * @return The number of records loaded.
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    private static Chunk await(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to parse: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Parses the lines of a chunk. Runs on a parser thread and does not touch the hotel.
+     */
+    private Chunk parse(Chunk chunk) {
+        int[] fieldEnds = new int[3];
+        for (int i = 0; i < chunk.count; i++) {
+            String line = chunk.lines[i];
+            chunk.lines[i] = null;
+            try {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                int fields = split(line, fieldEnds);
+                if (chunk.firstLine + i == 1 && field(line, fieldEnds, 0).strip().equalsIgnoreCase(kind.header)) {
+                    continue;
+                }
+                switch (kind) {
+                    case ROOMS -> {
+                        expectFields(fields, 3);
+                        int floor = parseInt(line, 0, fieldEnds[0]);
+                        int capacity = parseInt(line, fieldEnds[0] + 1, fieldEnds[1]);
+                        int price = parseInt(line, fieldEnds[1] + 1, fieldEnds[2]);
+                        if (floor < 0 || capacity < 1 || price < 0) {
+                            throw new IllegalArgumentException("Floor and price must not be negative, capacity at least 1.");
+                        }
+                        chunk.records[i] = new int[]{floor, capacity, price};
+                    }
+                    case GUESTS -> {
+                        expectFields(fields, 1);
+                        String name = line.strip();
+                        if (name.isEmpty()) {
+                            throw new IllegalArgumentException("Missing guest name.");
+                        }
+                        chunk.records[i] = name;
+                    }
+                    case STAYS -> {
+                        expectFields(fields, 3);
+                        int roomId = parseInt(line, 0, fieldEnds[0]);
+                        String[] names = field(line, fieldEnds, 1).split(";");
+                        for (int n = 0; n < names.length; n++) {
+                            names[n] = names[n].strip();
+                            if (names[n].isEmpty()) {
+                                throw new IllegalArgumentException("Empty guest name.");
+                            }
+                        }
+                        if (new HashSet<>(Arrays.asList(names)).size() < names.length) {
+                            throw new IllegalArgumentException("A guest is listed twice.");
+                        }
+                        LocalDate checkInDate = parseDate(line, fieldEnds[1] + 1, fieldEnds[2]);
+                        chunk.records[i] = new Stay(roomId, names, checkInDate);
+                    }
+                }
+            } catch (RuntimeException e) {
+                chunk.errors[i] = e.getMessage();
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Applies the parsed records of a chunk to the hotel, in file order, on the calling thread.
+     * Rooms are added with every floor lock held, taken once for the whole chunk.
+     */
+    private void apply(Chunk chunk, PrintWriter out, int[] failed) {
+        if (kind != Kind.ROOMS) {
+            applyRecords(chunk, out, failed);
+            return;
+        }
+        hotel.lockAllFloors();
+        try {
+            if (hotel.rooms.size() + chunk.count > reservedRooms) {
+                // Grow geometrically, reserving exactly each chunk would copy the rooms once per chunk
+                reservedRooms = Math.max(hotel.rooms.size() + chunk.count, 2 * reservedRooms);
+                hotel.ensureRoomCapacity(reservedRooms);
+            }
+            applyRecords(chunk, out, failed);
+        } finally {
+            hotel.unlockAllFloors();
+        }
+    }
+
+    private void applyRecords(Chunk chunk, PrintWriter out, int[] failed) {
+        for (int i = 0; i < chunk.count; i++) {
+            Object record = chunk.records[i];
+            if (chunk.errors[i] != null) {
+                report(out, failed, chunk.firstLine + i, chunk.errors[i]);
+                continue;
+            }
+            if (record == null) {
+                continue;
+            }
+            try {
+                switch (kind) {
+                    case ROOMS -> {
+                        int[] room = (int[]) record;
+                        hotel.addRoomLocked(room[0], room[1], room[2]);
+                    }
+                    case GUESTS -> hotel.guest((String) record);
+                    case STAYS -> applyStay((Stay) record);
+                }
+                imported++;
+            } catch (RuntimeException e) {
+                report(out, failed, chunk.firstLine + i, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Applies a stay with the lock of the room's floor held throughout, as Hotel.checkIn does, so no other
+     * desk sees the room or checks out of it while only some of the guests are in. If a guest cannot be
+     * added, the rent is undone by checking the room out on the day it was rented, so the line fails whole.
+     */
+    private void applyStay(Stay stay) {
+        Room room = hotel.rooms.get(stay.roomId);
+        if (room == null) {
+            throw new IllegalArgumentException("Room not found: " + stay.roomId);
+        }
+        if (stay.names.length > room.getCapacity()) {
+            throw new IllegalArgumentException("Room " + stay.roomId + " holds at most " + room.getCapacity() + " guests.");
+        }
+        Guest[] guests = new Guest[stay.names.length];
+        for (int n = 0; n < guests.length; n++) {
+            guests[n] = hotel.guest(stay.names[n]);
+        }
+        Lock lock = hotel.floorLock(room.getFloor());
+        lock.lock();
+        try {
+            if (!room.tryRent(guests[0], stay.checkInDate)) {
+                throw new IllegalArgumentException("Room " + stay.roomId + " is occupied or reserved for another guest.");
+            }
+            try {
+                for (int n = 1; n < guests.length; n++) {
+                    room.addGuest(guests[n]);
+                }
+            } catch (RuntimeException e) {
+                room.checkOut(stay.checkInDate);
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void report(PrintWriter out, int[] failed, int line, String message) {
+        if (++failed[0] <= MAX_REPORTED_ERRORS) {
+            out.println("Line " + line + ": " + message);
+        }
+    }
+
+    /**
+     * Finds the ends of the comma separated fields of a line, without copying them.
+     *
+     * @return The number of fields; only the first ends.length are recorded.
+     */
+    private static int split(String line, int[] ends) {
+        int fields = 0;
+        int length = line.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || line.charAt(i) == ',') {
+                if (fields < ends.length) ends[fields] = i;
+                fields++;
+            }
+        }
+        return fields;
+    }
+
+    private static String field(String line, int[] ends, int field) {
+        return line.substring(field == 0 ? 0 : ends[field - 1] + 1, ends[field]);
+    }
+
+    private static void expectFields(int fields, int expected) {
+        if (fields != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " field(s), found " + fields + ".");
+        }
+    }
+
+    // Parses a decimal number between the given indexes, ignoring surrounding spaces
+    private static int parseInt(String line, int start, int end) {
+        while (start < end && line.charAt(start) == ' ') start++;
+        while (end > start && line.charAt(end - 1) == ' ') end--;
+        try {
+            return Integer.parseInt(line, start, end, 10);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + line.substring(start, end));
+        }
+    }
+
+    // Parses a date in the form YYYY-MM-DD between the given indexes, ignoring surrounding spaces
+    private static LocalDate parseDate(String line, int start, int end) {
+        while (start < end && line.charAt(start) == ' ') start++;
+        while (end > start && line.charAt(end - 1) == ' ') end--;
+        if (end - start != 10 || line.charAt(start + 4) != '-' || line.charAt(start + 7) != '-') {
+            throw new IllegalArgumentException("Invalid date: " + line.substring(start, end) + ", use YYYY-MM-DD");
+        }
+        try {
+            return LocalDate.of(parseInt(line, start, start + 4), parseInt(line, start + 5, start + 7),
+                    parseInt(line, start + 8, start + 10));
+        } catch (DateTimeException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid date: " + line.substring(start, end) + ", use YYYY-MM-DD");
+        }
+    }
+
+    /**
+     * Lines read together, and what was parsed from each of them: a record, an error, or neither for skipped lines.
+     * A record is an int[] of floor, capacity and price for a room, the name for a guest, or a Stay.
+     */
+    private static final class Chunk {
+        private final int firstLine;
+        private final String[] lines;
+        private final int count;
+        private final Object[] records;
+        private final String[] errors;
+
+        Chunk(int firstLine, String[] lines, int count) {
+            this.firstLine = firstLine;
+            this.lines = lines;
+            this.count = count;
+            this.records = new Object[count];
+            this.errors = new String[count];
+        }
+    }
+
+    private static final class Stay {
+        private final int roomId;
+        private final String[] names;
+        private final LocalDate checkInDate;
+
+        Stay(int roomId, String[] names, LocalDate checkInDate) {
+            this.roomId = roomId;
+            this.names = names;
+            this.checkInDate = checkInDate;
+        }
+    }
+}
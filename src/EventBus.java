@@ -0,0 +1,159 @@
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands changes to rooms from the booking threads to consumers running on their own threads.
+ * Events live in a ring buffer allocated up front, so publishing allocates nothing: a publisher claims
+ * the next sequence number, fills in the slot and marks it published. Every consumer follows the
+ * sequence on its own thread and handles all events available at once as a batch.
+ * Publishers only look at the consumers when the ring is about to wrap, so attaching more consumers
+ * does not make publishing slower; a consumer that falls a full ring behind makes publishers wait.
+ */
+public class EventBus implements Closeable {
+    private final HotelEvent[] ring;
+    private final int mask;
+    // Sequence of the slot last published in each slot of the ring
+    private final AtomicLongArray published;
+    // Next sequence to claim
+    private final AtomicLong next = new AtomicLong();
+    // Lowest sequence every consumer has handled, as last seen by a publisher
+    private volatile long gating = Long.MAX_VALUE;
+    // Replaced when a consumer is added
+    private volatile EventConsumer[] consumers = new EventConsumer[0];
+
+    /**
+     * Constructs a bus with a ring of the given size.
+     *
+     * @param size The number of events the ring holds, a power of two.
+     * @throws IllegalArgumentException If the size is not a power of two.
+     */
+    public EventBus(int size) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two.");
+        }
+        this.ring = new HotelEvent[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new HotelEvent();
+        }
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Publishes an event. Safe to call from any number of threads.
+     *
+     * @param type The type of the event.
+     * @param roomId The ID of the room.
+     * @param guest The name of the guest.
+     * @param epochDay The day of the change.
+     * @param amount The charge of a check-out, 0 otherwise.
+     */
+    public void publish(byte type, int roomId, String guest, long epochDay, long amount) {
+        long sequence = next.getAndIncrement();
+        long wrapPoint = sequence - ring.length;
+        if (wrapPoint >= gating) {
+            long minimum;
+            while (wrapPoint >= (minimum = minimumConsumerSequence())) {
+                LockSupport.parkNanos(1);
+            }
+            gating = minimum;
+        }
+        int slot = (int) sequence & mask;
+        ring[slot].set(type, roomId, guest, epochDay, amount);
+        published.set(slot, sequence);
+    }
+
+    /**
+     * Attaches a consumer and starts its thread. It sees the events published from now on.
+     * Consumers should be attached before booking starts.
+     *
+     * @param name The name of the consumer, used for its thread.
+     * @param handler The handler to pass the events to.
+     * @param waitStrategy How the consumer waits for events when it has caught up.
+     */
+    public synchronized void addConsumer(String name, EventHandler handler, WaitStrategy waitStrategy) {
+        EventConsumer consumer = new EventConsumer(name, handler, waitStrategy, next.get());
+        EventConsumer[] updated = Arrays.copyOf(consumers, consumers.length + 1);
+        updated[consumers.length] = consumer;
+        consumers = updated;
+        // Make publishers look at the new consumer before wrapping over its first event
+        gating = Math.min(gating, consumer.nextSequence);
+        consumer.thread.start();
+    }
+
+    /**
+     * Stops the consumers once they have handled every event published before this call.
+     */
+    @Override
+    public void close() {
+        long last = next.get() - 1;
+        for (EventConsumer consumer : consumers) {
+            consumer.stopAfter = last;
+        }
+        for (EventConsumer consumer : consumers) {
+            try {
+                consumer.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private long minimumConsumerSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (EventConsumer consumer : consumers) {
+            minimum = Math.min(minimum, consumer.nextSequence);
+        }
+        return minimum;
+    }
+
+    private class EventConsumer implements Runnable {
+        private final EventHandler handler;
+        private final WaitStrategy waitStrategy;
+        private final Thread thread;
+        // Next sequence to handle; everything below it has been handled
+        private volatile long nextSequence;
+        // Last sequence to handle before stopping, or Long.MAX_VALUE to keep running
+        private volatile long stopAfter = Long.MAX_VALUE;
+
+        EventConsumer(String name, EventHandler handler, WaitStrategy waitStrategy, long nextSequence) {
+            this.handler = handler;
+            this.waitStrategy = waitStrategy;
+            this.nextSequence = nextSequence;
+            this.thread = new Thread(this, name);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long sequence = nextSequence;
+            int attempt = 0;
+            while (sequence <= stopAfter) {
+                long available = sequence - 1;
+                while (published.get((int) (available + 1) & mask) == available + 1) {
+                    available++;
+                }
+                if (available < sequence) {
+                    waitStrategy.idle(attempt++);
+                    continue;
+                }
+                attempt = 0;
+                for (; sequence <= available; sequence++) {
+                    try {
+                        handler.onEvent(ring[(int) sequence & mask], sequence, sequence == available);
+                    } catch (RuntimeException e) {
+                        System.err.println("Event handler " + thread.getName() + " failed: " + e.getMessage());
+                    }
+                }
+                nextSequence = sequence;
+            }
+        }
+    }
+}
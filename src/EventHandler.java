@@ -0,0 +1,13 @@
+/**
+ * Processes the events published on an event bus, on the consumer's own thread.
+ */
+public interface EventHandler {
+    /**
+     * Handles one event.
+     *
+     * @param event The event, only valid until the method returns.
+     * @param sequence The sequence number of the event.
+     * @param endOfBatch True for the last event available at the moment, a good point to flush.
+     */
+    void onEvent(HotelEvent event, long sequence, boolean endOfBatch);
+}
@@ -0,0 +1,60 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Appends every event of the bus to a text file, one line per event, for auditing and for other systems to follow.
+ * Lines are written to a buffer and flushed at the end of each batch, so a burst of bookings costs one write.
+ */
+public class EventLogWriter implements EventHandler, Closeable {
+    private final BufferedWriter writer;
+    private final StringBuilder line = new StringBuilder(64);
+
+    /**
+     * Opens the file for appending, creating it if needed.
+     *
+     * @param file The file to write the events to.
+     * @throws IOException If the file cannot be opened.
+     */
+    public EventLogWriter(Path file) throws IOException {
+        this.writer = Files.newBufferedWriter(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void onEvent(HotelEvent event, long sequence, boolean endOfBatch) {
+        line.setLength(0);
+        line.append(sequence).append(' ');
+        switch (event.getType()) {
+            case HotelEvent.RENTED -> line.append("RENTED ");
+            case HotelEvent.GUEST_ADDED -> line.append("GUEST_ADDED ");
+            case HotelEvent.CHECKED_OUT -> line.append("CHECKED_OUT ");
+            default -> line.append("UNKNOWN ");
+        }
+        ReportRenderer.appendRoomId(line, event.getRoomId()).append(' ').append(event.getGuest());
+        if (event.getType() != HotelEvent.GUEST_ADDED) {
+            line.append(' ').append(LocalDate.ofEpochDay(event.getEpochDay()));
+        }
+        if (event.getType() == HotelEvent.CHECKED_OUT) {
+            line.append(' ').append(event.getAmount());
+        }
+        line.append('\n');
+        try {
+            writer.append(line);
+            if (endOfBatch) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
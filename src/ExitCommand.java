@@ -1,7 +1,16 @@
+import java.io.PrintWriter;
+
 public class ExitCommand extends Command {
     @Override
     public void execute() {
         System.out.println("Exiting...");
         System.exit(0);
     }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        out.println("Exiting...");
+        out.flush();
+        System.exit(0);
+    }
 }
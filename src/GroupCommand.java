@@ -0,0 +1,36 @@
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.List;
+
+public class GroupCommand extends Command {
+
+    @Override
+    public void execute() {
+        hotel.out.println("Pass the number of rooms and the guest names separated by spaces: ...");
+        execute(hotel.scanner.nextLine().strip().split("\\s+"), hotel.out);
+    }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: group <rooms> <guest> [guest...]");
+        }
+        int roomCount;
+        try {
+            roomCount = Integer.parseInt(args[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number of rooms: " + args[0]);
+        }
+        List<Room> rooms = hotel.bookGroup(Arrays.asList(args).subList(1, args.length), roomCount);
+        StringBuilder sb = new StringBuilder(64);
+        for (Room room : rooms) {
+            ReportRenderer.appendRoomId(sb.append("Room "), room.getRoomId()).append(": ").append(room.getGuest().getName());
+            for (Guest guest : room.getExtraGuests()) {
+                sb.append(", ").append(guest.getName());
+            }
+            sb.append('\n');
+        }
+        out.append(sb);
+        out.flush();
+    }
+}
@@ -1,9 +1,15 @@
+import java.util.Arrays;
+import java.util.List;
+
 public class Guest {
+    private static final Room[] NO_ROOMS = new Room[0];
+
     // The name of the guest.
     private String name;
 
-    // The room that the guest is currently staying in.
-    private Room room;
+    // The rooms the guest is currently staying in, in the order they were booked.
+    // Replaced on every change so readers can use it without locking.
+    private volatile Room[] rooms = NO_ROOMS;
 
     /**
      * Constructor to create a guest with a specified name.
@@ -24,11 +30,56 @@ public class Guest {
     }
 
     /**
-     * Set the room for the guest, linking the guest to a specific room.
+     * Get the room the guest is currently staying in.
+     * Rooms keep this up to date when guests rent, join and check out.
+     *
+     * @return The first of the rooms the guest is staying in, or null if the guest is not staying in the hotel.
+     */
+    public Room getRoom() {
+        Room[] rooms = this.rooms;
+        return rooms.length == 0 ? null : rooms[0];
+    }
+
+    /**
+     * Get all the rooms the guest is currently staying in, such as the rooms of a group booked in one name.
+     *
+     * @return The rooms, in the order they were booked; empty if the guest is not staying in the hotel.
+     */
+    public List<Room> getRooms() {
+        return List.of(rooms);
+    }
+
+    /**
+     * Links the guest to a room they have rented or joined.
      *
      * @param room The room the guest is staying in.
      */
-    void setRoom(Room room) {
-        this.room = room;
+    synchronized void addRoom(Room room) {
+        Room[] current = rooms;
+        for (Room r : current) {
+            if (r == room) {
+                return;
+            }
+        }
+        Room[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = room;
+        rooms = updated;
+    }
+
+    /**
+     * Unlinks the guest from a room they have checked out of, keeping their other rooms.
+     *
+     * @param room The room the guest left.
+     */
+    synchronized void removeRoom(Room room) {
+        Room[] current = rooms;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == room) {
+                Room[] updated = Arrays.copyOf(current, current.length - 1);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                rooms = updated;
+                return;
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+import java.io.PrintWriter;
+import java.util.List;
+
+public class GuestCommand extends Command {
+    // Most guests listed for one prefix
+    private static final int LIMIT = 20;
+
+    @Override
+    public void execute() {
+        hotel.out.println("Pass guest name or the start of it: ...");
+        execute(new String[]{hotel.scanner.nextLine().strip()}, hotel.out);
+    }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: guest <name or prefix>");
+        }
+        List<Guest> guests = hotel.findGuests(args[0], LIMIT + 1);
+        StringBuilder sb = new StringBuilder(64);
+        sb.append("Guests found: ").append(guests.size() > LIMIT ? "more than " + LIMIT : guests.size()).append('\n');
+        for (int i = 0; i < guests.size() && i < LIMIT; i++) {
+            Guest guest = guests.get(i);
+            List<Room> rooms = guest.getRooms();
+            sb.append(guest.getName());
+            if (rooms.isEmpty()) {
+                sb.append(" - not staying\n");
+            } else {
+                sb.append(rooms.size() == 1 ? " - room " : " - rooms ");
+                for (int r = 0; r < rooms.size(); r++) {
+                    ReportRenderer.appendRoomId(r == 0 ? sb : sb.append(", "), rooms.get(r).getRoomId());
+                }
+                sb.append('\n');
+            }
+        }
+        out.append(sb);
+        out.flush();
+    }
+}
@@ -0,0 +1,104 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Every guest the hotel has seen, current or past, by name.
+ * Exact lookups go through a hash map; a sorted index of the same guests answers prefix searches,
+ * so the front desk can complete a name without scanning the whole directory. The sorted index is built on
+ * the first prefix search, so restoring a large directory at startup only pays for the hash map.
+ * Where a guest is staying is kept on the guest itself by the rooms, so finding it is one lookup.
+ */
+public class GuestDirectory {
+    // Guarded by this directory
+    private final MyMap<String, Guest> byName = new MyMap<>();
+    // Same guests sorted by name, read without locking; null until the first prefix search
+    private volatile ConcurrentSkipListMap<String, Guest> sorted;
+
+    /**
+     * Returns the guest with the given name, adding a new one if there is none.
+     *
+     * @param name The name of the guest.
+     * @return The guest with the given name.
+     */
+    synchronized Guest guest(String name) {
+        Guest guest = byName.get(name);
+        if (guest == null) {
+            guest = new Guest(name);
+            byName.put(name, guest);
+            ConcurrentSkipListMap<String, Guest> sorted = this.sorted;
+            if (sorted != null) sorted.put(name, guest);
+        }
+        return guest;
+    }
+
+    /**
+     * Returns the guest with the given name.
+     *
+     * @param name The name of the guest.
+     * @return The guest, or null if there is none with that name.
+     */
+    synchronized Guest find(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * Returns the guests whose names start with the given prefix, sorted by name.
+     *
+     * @param prefix The start of the names, empty for all guests.
+     * @param limit The maximum number of guests to return.
+     * @return The matching guests.
+     */
+    List<Guest> withPrefix(String prefix, int limit) {
+        List<Guest> result = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, Guest> entry : sorted().tailMap(prefix).entrySet()) {
+            if (result.size() == limit || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            result.add(entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the sorted index, building it from the hash map on first use.
+     *
+     * @return The guests sorted by name.
+     */
+    private ConcurrentSkipListMap<String, Guest> sorted() {
+        ConcurrentSkipListMap<String, Guest> sorted = this.sorted;
+        if (sorted == null) {
+            synchronized (this) {
+                sorted = this.sorted;
+                if (sorted == null) {
+                    TreeMap<String, Guest> byKey = new TreeMap<>();
+                    byName.forEachEntry(byKey::put);
+                    // Built from a sorted map in one linear pass
+                    sorted = new ConcurrentSkipListMap<>(byKey);
+                    this.sorted = sorted;
+                }
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * Returns the names of all guests, in the order they were added.
+     *
+     * @return A new list of the names.
+     */
+    synchronized List<String> names() {
+        return byName.keys();
+    }
+
+    /**
+     * Returns the number of guests.
+     *
+     * @return The number of guests.
+     */
+    synchronized int size() {
+        return byName.size();
+    }
+}
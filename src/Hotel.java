@@ -1,50 +1,169 @@
-import java.sql.SQLOutput;
+import java.io.PrintWriter;
 import java.time.LocalDate;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * The hotel and its rooms.
+ * Bookings are safe to make from several threads at once: the state of a room only changes under
+ * the lock of its floor, taken from a fixed set of striped locks, and readers such as view and list
+ * never take those locks. Rooms are added with every floor lock held. When the hotel is kept on disk, an
+ * operation returns or reports its change only once the journal has it on disk, see awaitJournal.
+ * A hotel driven by one thread only, such as a shard of a ShardedHotel, is built without floor locks.
+ */
 public class Hotel {
+    // Number of striped floor locks, a power of two
+    private static final int FLOOR_LOCKS = 64;
+    // Floor lock of a hotel driven by one thread, which has no other thread to exclude
+    private static final Lock UNLOCKED = new Lock() {
+        @Override
+        public void lock() {
+        }
+
+        @Override
+        public void lockInterruptibly() {
+        }
+
+        @Override
+        public boolean tryLock() {
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("A hotel driven by one thread has nothing to wait for.");
+        }
+    };
+    // Most room details and floor map rows kept rendered
+    private static final int ROOM_VIEWS = 1 << 16;
+    private static final int FLOOR_ROWS = 1 << 12;
+    // Room ids are 100 * floor + number on the floor, so a floor holds at most 99 rooms
+    static final int MAX_ROOMS_PER_FLOOR = 99;
 
-    Scanner scanner = new Scanner(System.in);
+    // Console input, one scanner for every hotel: a second scanner on System.in would swallow the input
+    // the first one has buffered, such as a sharded hotel's shards reading the next line one after another
+    static final Scanner CONSOLE = new Scanner(System.in);
 
-    MyMap<Integer, Room> rooms = new MyMap<>();
-    MyMap<Integer, MyMap<Integer, Room>> floors = new MyMap<>();
-    MyMap<String, Guest> guests = new MyMap<>();
+    Scanner scanner = CONSOLE;
+    // Console output of the interactive commands
+    PrintWriter out = new PrintWriter(System.out, true);
+
+    IntObjectMap<Room> rooms = new IntObjectMap<>();
+    IntObjectMap<IntObjectMap<Room>> floors = new IntObjectMap<>();
+    GuestDirectory guests = new GuestDirectory();
+    // Ids, capacities, prices and check-in days of all rooms, by ordinal
+    final RoomStore store = new RoomStore(16);
+    VacancyIndex vacancies = new VacancyIndex(store);
+    AvailabilityIndex availability = new AvailabilityIndex();
+    RoomIndex index = new RoomIndex();
+    // Live figures for the whole hotel and for each floor, kept up to date by the room hooks
+    final OccupancyStats stats = new OccupancyStats();
+    IntObjectMap<OccupancyStats> floorStats = new IntObjectMap<>();
+    // Counters of the booking paths and latencies of the commands
+    final HotelMetrics metrics = new HotelMetrics();
+    private final Lock[] floorLocks = new Lock[FLOOR_LOCKS];
+    // Records every change when the hotel is kept on disk, null otherwise
+    volatile Journal journal;
+    // Hands every change to asynchronous consumers, null when nobody listens
+    volatile EventBus events;
+    // Nightly rates of today from the pricing engine, shown by the reports; null to show the base prices
+    volatile PriceTable priceTable;
+    // Nightly rates of every day priced, stays are charged night by night from these
+    final RateCalendar rateCalendar = new RateCalendar();
+    // Rendered details of the rooms by ordinal, and rows of the floor map by floor
+    final RenderCache roomViews = new RenderCache(ROOM_VIEWS);
+    private final RenderCache floorRows = new RenderCache(FLOOR_ROWS);
+    // Set once the hotel is served to other desks, whose readers look rooms up without taking any lock
+    private volatile boolean roomsFixed;
 
     /**
      * Constructs an empty hotel with no rooms or guests.
      */
     public Hotel() {
+        for (int i = 0; i < floorLocks.length; i++) {
+            floorLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Constructs an empty hotel driven by one thread only, such as a shard of a ShardedHotel, which runs
+     * every change and every read of a shard on the shard's executor. Its floor locks do nothing, as there
+     * is no other thread to exclude; the rooms still keep their versions, which their rendered details are
+     * cached by, and the vacancy index still finds the free rooms.
+     *
+     * @param guests The directory of the guests, shared with the hotels driven the same way.
+     */
+    Hotel(GuestDirectory guests) {
+        Arrays.fill(floorLocks, UNLOCKED);
+        this.guests = guests;
     }
 
     /**
      * Generates rooms for the hotel across multiple floors.
+     * Storage for all the new rooms is reserved up front, so generating n rooms takes linear time.
      *
      * @param floors The number of floors in the hotel.
      * @param roomsPerFloor The number of rooms per floor.
      * @param capacity The capacity of each room.
      * @param price The price of each room.
      * @return The current Hotel instance with the generated rooms.
-     * @throws IllegalArgumentException If floors or roomsPerFloor is less than or equal to zero.
+     * @throws IllegalArgumentException If floors or roomsPerFloor is less than or equal to zero,
+     *                                  roomsPerFloor is above 99 or one of the room ids is taken.
+     * @throws IllegalStateException If the rooms are fixed, see fixRooms.
      */
     Hotel generateRooms(Integer floors, Integer roomsPerFloor, int capacity, int price) {
         if (floors == null || floors <= 0 || roomsPerFloor == null || roomsPerFloor <= 0) {
             throw new IllegalArgumentException("Floors and roomsPerFloor must be positive integers.");
         }
-        int startFloor = this.floors.isEmpty() ? 0 : this.floors.size();
-        for (int floor = startFloor; floor < floors + startFloor; floor++) {
-            MyMap<Integer, Room> currentFloor = this.floors.get(floor);
-            if (currentFloor == null) {
-                currentFloor = new MyMap<>();
-                this.floors.put(floor, currentFloor);
+        if (roomsPerFloor > MAX_ROOMS_PER_FLOOR) {
+            throw new IllegalArgumentException("At most " + MAX_ROOMS_PER_FLOOR + " rooms per floor.");
+        }
+        lockAllFloors();
+        try {
+            checkRoomsOpen();
+            int startFloor = this.floors.isEmpty() ? 0 : this.floors.size();
+            // Check every id before adding anything, so a clash leaves the hotel unchanged
+            for (int floor = startFloor; floor < floors + startFloor; floor++) {
+                for (int room = 0; room < roomsPerFloor; room++) {
+                    if (this.rooms.containsKey(100 * floor + room + 1)) {
+                        throw new IllegalArgumentException("Room id already exists: " + (100 * floor + room + 1));
+                    }
+                }
             }
-            for (int room = 0; room < roomsPerFloor; room++) {
-                Integer roomId = 100 * floor + room + 1;
-                Room roomToAdd = new Room(roomId, capacity, price);
-                this.rooms.put(roomId, roomToAdd);
-                currentFloor.put(roomId, roomToAdd);
+            ensureRoomCapacity(this.rooms.size() + floors * roomsPerFloor);
+            this.floors.ensureCapacity(this.floors.size() + floors);
+            for (int floor = startFloor; floor < floors + startFloor; floor++) {
+                IntObjectMap<Room> currentFloor = this.floors.get(floor);
+                if (currentFloor == null) {
+                    currentFloor = new IntObjectMap<>(roomsPerFloor);
+                    this.floors.put(floor, currentFloor);
+                }
+                for (int room = 0; room < roomsPerFloor; room++) {
+                    int roomId = 100 * floor + room + 1;
+                    register(currentFloor, roomId, capacity, price);
+                }
             }
+        } finally {
+            unlockAllFloors();
         }
+        awaitJournal();
         return this;
     }
 
@@ -56,40 +175,341 @@ public class Hotel {
      * @param price The price of the new room.
      * @return The current Hotel instance with the added room.
      * @throws IllegalArgumentException If floor is null.
+     * @throws IllegalStateException If the rooms are fixed, see fixRooms.
      */
     Hotel addRoom(Integer floor, int capacity, int price) {
         if (floor == null) {
             throw new IllegalArgumentException("Floor must be positive integers.");
         }
-        MyMap<Integer, Room> currentFloor = this.floors.get(floor);
+        lockAllFloors();
+        try {
+            addRoomLocked(floor, capacity, price);
+        } finally {
+            unlockAllFloors();
+        }
+        awaitJournal();
+        return this;
+    }
+
+    /**
+     * Adds a single room to a specific floor while the caller holds every floor lock, see lockAllFloors.
+     * Lets a caller adding many rooms take the locks once for all of them.
+     *
+     * @param floor The floor number where the room will be added.
+     * @param capacity The capacity of the new room.
+     * @param price The price of the new room.
+     * @return The new room.
+     * @throws IllegalArgumentException If the floor is full.
+     * @throws IllegalStateException If the rooms are fixed, see fixRooms.
+     */
+    Room addRoomLocked(int floor, int capacity, int price) {
+        checkRoomsOpen();
+        IntObjectMap<Room> currentFloor = this.floors.get(floor);
         if (currentFloor == null) {
-            currentFloor = new MyMap<>();
+            currentFloor = new IntObjectMap<>();
             this.floors.put(floor, currentFloor);
         }
+        if (currentFloor.size() == MAX_ROOMS_PER_FLOOR) {
+            throw new IllegalArgumentException("Floor " + floor + " is full.");
+        }
         int roomId = 100 * floor + currentFloor.size() + 1;
-        Room roomToAdd = new Room(roomId, capacity, price);
-        currentFloor.put(roomId, roomToAdd);
-        return this;
+        return register(currentFloor, roomId, capacity, price);
+    }
+
+    /**
+     * Fixes the set of rooms: from now on no room can be added.
+     * Called before the hotel is served to other desks, whose commands read the room maps without locks
+     * and would race with a room being added. Waits for any room being added right now.
+     */
+    void fixRooms() {
+        lockAllFloors();
+        try {
+            roomsFixed = true;
+        } finally {
+            unlockAllFloors();
+        }
+    }
+
+    /**
+     * Tells whether rooms can no longer be added, see fixRooms.
+     *
+     * @return True if the rooms are fixed.
+     */
+    boolean roomsFixed() {
+        return roomsFixed;
+    }
+
+    private void checkRoomsOpen() {
+        if (roomsFixed) {
+            throw new IllegalStateException("Rooms cannot be added while the hotel is served to other desks.");
+        }
+    }
+
+    /**
+     * Reserves storage for the given number of rooms in total, so adding them does not resize on the way.
+     *
+     * @param rooms The number of rooms the hotel is expected to hold.
+     */
+    void ensureRoomCapacity(int rooms) {
+        this.rooms.ensureCapacity(rooms);
+        this.store.ensureCapacity(rooms);
+    }
+
+    /**
+     * Adds a new room to the hotel, its floor and the vacancy index.
+     * The hotel's room map doubles as its registry of room ids, so a taken id is found in constant time.
+     * Called with every floor lock held, so the room is journaled in order with the changes around it and
+     * a snapshot, which holds the same locks, either has the room or sees it in the journal after it.
+     *
+     * @param currentFloor The floor the room is on.
+     * @param roomId The ID of the room.
+     * @param capacity The capacity of the room.
+     * @param price The price of the room.
+     * @return The new room.
+     * @throws IllegalArgumentException If the hotel already has a room with the same id.
+     */
+    private Room register(IntObjectMap<Room> currentFloor, int roomId, int capacity, int price) {
+        if (this.rooms.containsKey(roomId)) {
+            throw new IllegalArgumentException("Room id already exists: " + roomId);
+        }
+        Room room = store.add(this, roomId, capacity, price);
+        this.rooms.put(roomId, room);
+        currentFloor.put(roomId, room);
+        vacancies.add(room);
+        index.add(room);
+        OccupancyStats floor = floorStats.get(room.getFloor());
+        if (floor == null) {
+            floor = new OccupancyStats();
+            floorStats.put(room.getFloor(), floor);
+        }
+        floor.roomAdded();
+        stats.roomAdded();
+        Journal journal = this.journal;
+        if (journal != null) journal.addRoom(room.getFloor(), room.getRoomId(), room.getCapacity(), room.getPrice());
+        return room;
+    }
+
+    /**
+     * Adds a room read back from a snapshot or journal.
+     * Only called while restoring, before the hotel is shared or journaled, so it takes no locks.
+     *
+     * @param floor The floor the room is on.
+     * @param roomId The ID of the room.
+     * @param capacity The capacity of the room.
+     * @param price The price of the room.
+     * @return The restored room.
+     */
+    Room restoreRoom(int floor, int roomId, int capacity, int price) {
+        IntObjectMap<Room> currentFloor = this.floors.get(floor);
+        if (currentFloor == null) {
+            currentFloor = new IntObjectMap<>();
+            this.floors.put(floor, currentFloor);
+        }
+        return register(currentFloor, roomId, capacity, price);
+    }
+
+    /**
+     * Returns the lock guarding the rooms on the given floor.
+     * Floors share locks when there are more floors than locks.
+     *
+     * @param floor The floor number.
+     * @return The lock for the floor.
+     */
+    Lock floorLock(int floor) {
+        return floorLocks[floor & (FLOOR_LOCKS - 1)];
+    }
+
+    /**
+     * Takes the locks of all floors, stopping every change to the rooms until they are released.
+     */
+    void lockAllFloors() {
+        for (Lock lock : floorLocks) {
+            lock.lock();
+        }
+    }
+
+    /**
+     * Takes the locks with the given indexes, in ascending order like lockAllFloors.
+     *
+     * @param locks The indexes of the locks to take.
+     */
+    private void lockFloors(BitSet locks) {
+        for (int i = locks.nextSetBit(0); i >= 0; i = locks.nextSetBit(i + 1)) {
+            floorLocks[i].lock();
+        }
+    }
+
+    private void unlockFloors(BitSet locks) {
+        for (int i = locks.previousSetBit(floorLocks.length - 1); i >= 0; i = locks.previousSetBit(i - 1)) {
+            floorLocks[i].unlock();
+        }
+    }
+
+    /**
+     * Releases the locks taken by lockAllFloors.
+     */
+    void unlockAllFloors() {
+        for (int i = floorLocks.length - 1; i >= 0; i--) {
+            floorLocks[i].unlock();
+        }
+    }
+
+    /**
+     * Waits until the journal has every change made so far on disk, if the hotel is kept on disk.
+     * Operations call this after their change and before they return or report it, with no floor lock held,
+     * so the changes other desks make meanwhile are forced to disk together with theirs.
+     */
+    void awaitJournal() {
+        Journal journal = this.journal;
+        if (journal != null) {
+            journal.sync();
+        }
+    }
+
+    /**
+     * Returns the registered guest with the given name, registering a new one if there is none.
+     *
+     * @param name The name of the guest.
+     * @return The guest with the given name.
+     */
+    Guest guest(String name) {
+        return guests.guest(name);
+    }
+
+    /**
+     * Returns the room a guest is staying in.
+     *
+     * @param name The name of the guest.
+     * @return The room, or null if the guest is not staying in the hotel.
+     */
+    public Room findGuestRoom(String name) {
+        Guest guest = guests.find(name);
+        return guest == null ? null : guest.getRoom();
+    }
+
+    /**
+     * Returns the guests whose names start with the given prefix, sorted by name.
+     *
+     * @param prefix The start of the names.
+     * @param limit The maximum number of guests to return.
+     * @return The matching guests, current and past.
+     */
+    public List<Guest> findGuests(String prefix, int limit) {
+        return guests.withPrefix(prefix, limit);
+    }
+
+    /**
+     * Called by a room of this hotel after it has been rented.
+     *
+     * @param room The rented room.
+     */
+    void roomRented(Room room) {
+        vacancies.markOccupied(room.getOrdinal());
+        stats.roomRented(room.getStayRate(), room.getCheckInDate());
+        floorStats.get(room.getFloor()).roomRented(room.getStayRate(), room.getCheckInDate());
+        Journal journal = this.journal;
+        if (journal != null) journal.rent(room.getRoomId(), room.getGuest().getName(), room.getCheckInDate());
+        EventBus events = this.events;
+        if (events != null) events.publish(HotelEvent.RENTED, room.getRoomId(), room.getGuest().getName(), room.getCheckInDate().toEpochDay(), 0);
+    }
+
+    /**
+     * Called by a room of this hotel after an extra guest has been added to it.
+     *
+     * @param room The room.
+     * @param guest The added guest.
+     */
+    void guestAdded(Room room, Guest guest) {
+        stats.guestAdded();
+        floorStats.get(room.getFloor()).guestAdded();
+        Journal journal = this.journal;
+        if (journal != null) journal.addGuest(room.getRoomId(), guest.getName());
+        EventBus events = this.events;
+        if (events != null) events.publish(HotelEvent.GUEST_ADDED, room.getRoomId(), guest.getName(), 0, 0);
+    }
+
+    /**
+     * Called by a room of this hotel after its check-in date has been changed.
+     *
+     * @param room The room.
+     * @param oldDate The check-in date before the change.
+     */
+    void checkInDateChanged(Room room, LocalDate oldDate) {
+        if (room.isOccupied() && oldDate != null) {
+            stats.checkInDateChanged(room.getStayRate(), oldDate, room.getCheckInDate());
+            floorStats.get(room.getFloor()).checkInDateChanged(room.getStayRate(), oldDate, room.getCheckInDate());
+        }
+        Journal journal = this.journal;
+        if (journal != null) journal.setCheckInDate(room.getRoomId(), room.getCheckInDate());
+    }
+
+    /**
+     * Called by a room of this hotel after its guests have checked out.
+     *
+     * @param room The vacated room.
+     * @param guest The main guest of the stay.
+     * @param checkInDate The day the departing guests checked in.
+     * @param checkOutDate The day of the check-out.
+     * @param guests The number of departing guests.
+     * @param charge The charge for the stay.
+     */
+    void roomVacated(Room room, Guest guest, LocalDate checkInDate, LocalDate checkOutDate, int guests, long charge) {
+        vacancies.markFree(room.getOrdinal());
+        stats.roomVacated(room.getStayRate(), checkInDate, guests, charge);
+        floorStats.get(room.getFloor()).roomVacated(room.getStayRate(), checkInDate, guests, charge);
+        Journal journal = this.journal;
+        if (journal != null) journal.checkOut(room.getRoomId(), checkOutDate);
+        EventBus events = this.events;
+        if (events != null) events.publish(HotelEvent.CHECKED_OUT, room.getRoomId(), guest.getName(), checkOutDate.toEpochDay(), charge);
+    }
+
+    /**
+     * Called by a room of this hotel after a reservation has been added to it.
+     *
+     * @param room The room.
+     * @param reservation The reservation.
+     */
+    void roomReserved(Room room, Reservation reservation) {
+        availability.reserve(room.getOrdinal(), reservation.getFromDay(), reservation.getToDay());
+        Journal journal = this.journal;
+        if (journal != null) journal.reserve(room.getRoomId(), reservation);
+    }
+
+    /**
+     * Called by a room of this hotel after a reservation has been released at check-out.
+     *
+     * @param room The room.
+     * @param reservation The released reservation.
+     */
+    void reservationReleased(Room room, Reservation reservation) {
+        availability.release(room.getOrdinal(), reservation.getFromDay(), reservation.getToDay());
     }
 
     /**
      * Prints all room IDs across all floors.
      */
     public void print() {
-        for (Integer floor : this.floors.keys()) {
-            MyMap<Integer, Room> currentFloor = this.floors.get(floor);
-            for (Room room : currentFloor.values()) {
-                int roomId = room.getRoomId();
-                if (roomId < 10) {
-                    System.out.print("00" + roomId + " |");
-                } else if (roomId < 100) {
-                    System.out.print("0" + roomId + " |");
-                } else {
-                    System.out.print(room.getRoomId() + " |");
-                }
+        print(out);
+        out.flush();
+    }
+
+    /**
+     * Prints all room IDs across all floors.
+     * A row only changes when rooms are added to its floor, so rows are kept rendered by floor and room count.
+     *
+     * @param out The writer to print to.
+     */
+    public void print(PrintWriter out) {
+        ReportRenderer renderer = new ReportRenderer(out);
+        this.floors.forEach((floor, floorRooms) -> {
+            String row = floorRows.get(floor, floorRooms.size(), 0);
+            if (row == null) {
+                row = ReportRenderer.appendFloorRow(new StringBuilder(6 * floorRooms.size() + 1), floorRooms).toString();
+                floorRows.put(floor, floorRooms.size(), 0, row);
             }
-            System.out.println();
-        }
+            renderer.text(row);
+        });
+        renderer.flush();
     }
 
     /**
@@ -99,17 +519,51 @@ public class Hotel {
      * @return The current Hotel instance after renting a room.
      */
     public Hotel rentRoom(Guest guest) {
-        for (Room room : this.rooms.values()) {
-            if (!room.isOccupied()) {
-                room.rent(guest);
-                System.out.println("Room rented");
-                return this;
-            }
+        if (assignRoom(guest) != null) {
+            awaitJournal();
+            System.out.println("Room rented");
+        } else {
+            System.err.println("No free room found");
         }
-        System.err.println("No free room found");
         return this;
     }
 
+    /**
+     * Rents the first free room to a guest.
+     *
+     * @param guest The guest who will rent a room.
+     * @return The rented room, or null if no room is free.
+     */
+    Room assignRoom(Guest guest) {
+        // Skip rooms another desk took meanwhile, or that are reserved today for someone else
+        for (Room room = vacancies.firstFree(); room != null; room = vacancies.nextFree(room.getOrdinal() + 1)) {
+            if (room.tryRent(guest)) {
+                metrics.booked();
+                return room;
+            }
+        }
+        metrics.bookingFailed();
+        return null;
+    }
+
+    /**
+     * Checks if any room in the hotel is free.
+     *
+     * @return True if at least one room is free, false otherwise.
+     */
+    public boolean hasFreeRoom() {
+        return vacancies.freeCount() > 0;
+    }
+
+    /**
+     * Returns the number of free rooms in the hotel.
+     *
+     * @return The number of free rooms.
+     */
+    public int freeRooms() {
+        return vacancies.freeCount();
+    }
+
     /**
      * Rent a specific room to a guest.
      *
@@ -122,10 +576,12 @@ public class Hotel {
         if (room == null) {
             throw new IllegalArgumentException("Room must be positive integers.");
         }
-        if (room.isOccupied()) {
-            throw new IllegalArgumentException("Room already occupied.");
+        if (!room.tryRent(guest)) {
+            metrics.bookingFailed();
+            throw new IllegalArgumentException(room.isOccupied() ? "Room already occupied." : "Room reserved for another guest.");
         }
-        room.rent(guest);
+        metrics.booked();
+        awaitJournal();
         return this;
     }
 
@@ -138,10 +594,11 @@ public class Hotel {
      * @throws IllegalArgumentException If the room is not found.
      */
     public Hotel rentRoom(Guest guest, int roomId) {
-        if (!rooms.containsKey(roomId)) {
+        Room room = lookup(roomId);
+        if (room == null) {
             throw new IllegalArgumentException("Room not found.");
         }
-        rentRoom(guest, rooms.get(roomId));
+        rentRoom(guest, room);
         return this;
     }
 
@@ -152,15 +609,37 @@ public class Hotel {
      * @return The current Hotel instance after viewing the room.
      */
     public Hotel view(int roomId) {
-        Room room = rooms.get(roomId);
+        Room room = lookup(roomId);
         if (room != null) {
-            room.print();
+            out.append(room.render());
+            out.flush();
             return this;
         }
         System.err.println("No room found");
         return this;
     }
 
+    /**
+     * View the details of a room, or the floor map of all rooms.
+     *
+     * @param roomNumber The ID of the room to be viewed, or "all".
+     * @param out The writer to print to.
+     * @return The current Hotel instance after viewing the room.
+     * @throws IllegalArgumentException If the room number is invalid or the room is not found.
+     */
+    public Hotel view(String roomNumber, PrintWriter out) {
+        if (roomNumber.equals("all")) {
+            print(out);
+            return this;
+        }
+        Room room = lookup(parseRoomId(roomNumber));
+        if (room == null) {
+            throw new IllegalArgumentException("No room found");
+        }
+        out.append(room.render());
+        return this;
+    }
+
     /**
      * View the details of a room by inputting its ID.
      *
@@ -194,24 +673,122 @@ public class Hotel {
      * @return The current Hotel instance after listing the rooms.
      */
     public Hotel list() {
-        for (Room room : this.rooms.values()) {
-            room.print();
-        }
+        list(out);
+        out.flush();
+        return this;
+    }
+
+    /**
+     * Lists all rooms in the hotel.
+     * Rooms unchanged since the last listing are not rendered again, unless the hotel has more rooms than
+     * the cache holds: the listing would then only push out its own entries, so it renders everything.
+     *
+     * @param out The writer to print to.
+     * @return The current Hotel instance after listing the rooms.
+     */
+    public Hotel list(PrintWriter out) {
+        ReportRenderer renderer = new ReportRenderer(out);
+        list(renderer);
+        renderer.flush();
         return this;
     }
 
+    /**
+     * Renders all rooms in the hotel, leaving the renderer to write out the rest, so the rooms of several
+     * hotels can be listed in one report.
+     *
+     * @param renderer The renderer to render the rooms with.
+     */
+    void list(ReportRenderer renderer) {
+        boolean cached = store.size() <= roomViews.capacity();
+        for (int ordinal = 0, size = store.size(); ordinal < size; ordinal++) {
+            Room room = store.room(ordinal);
+            if (cached) {
+                renderer.text(room.render());
+            } else {
+                renderer.room(room);
+            }
+        }
+    }
+
     /**
      * Displays the prices for all rooms in the hotel.
      *
      * @return The current Hotel instance after displaying the prices.
      */
     public Hotel prices() {
-        for (Room room : this.rooms.values()) {
-            room.toStringPrices();
-        }
+        prices(out);
+        out.flush();
+        return this;
+    }
+
+    /**
+     * Displays the prices for all rooms in the hotel.
+     *
+     * @param out The writer to print to.
+     * @return The current Hotel instance after displaying the prices.
+     */
+    public Hotel prices(PrintWriter out) {
+        new ReportRenderer(out).prices(store, priceTable).flush();
         return this;
     }
 
+    /**
+     * Finds the rooms matching the given criteria, using the capacity, price, floor and vacancy indexes.
+     *
+     * @param query The search criteria.
+     * @return The matching rooms, in the order they were added.
+     */
+    public List<Room> search(RoomQuery query) {
+        return index.search(query, vacancies, priceTable);
+    }
+
+    /**
+     * Reserve a room for a guest over a range of nights.
+     *
+     * @param guestName The name of the guest.
+     * @param roomId The ID of the room.
+     * @param from The arrival day.
+     * @param to The departure day.
+     * @return The reservation.
+     * @throws IllegalArgumentException If the room is not found, or not free for the whole range.
+     */
+    public Reservation reserve(String guestName, int roomId, LocalDate from, LocalDate to) {
+        Room room = lookup(roomId);
+        if (room == null) {
+            throw new IllegalArgumentException("Room not found.");
+        }
+        Reservation reservation = new Reservation(guest(guestName), from, to);
+        room.reserve(reservation);
+        awaitJournal();
+        return reservation;
+    }
+
+    /**
+     * Finds the rooms that are free for every night of a range.
+     * Rooms occupied now count as taken for a range that includes today.
+     *
+     * @param from The arrival day.
+     * @param to The departure day.
+     * @return The free rooms, in the order they were added.
+     * @throws IllegalArgumentException If the departure day is not after the arrival day.
+     */
+    public List<Room> availableRooms(LocalDate from, LocalDate to) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("Departure must be after arrival.");
+        }
+        BitSet free = availability.free(vacancies.size(), from.toEpochDay(), to.toEpochDay());
+        LocalDate today = LocalDate.now();
+        if (!from.isAfter(today) && to.isAfter(today)) {
+            free.and(vacancies.freeRooms());
+        }
+        List<Room> result = new ArrayList<>(free.cardinality());
+        for (int ordinal = free.nextSetBit(0); ordinal >= 0; ordinal = free.nextSetBit(ordinal + 1)) {
+            result.add(vacancies.room(ordinal));
+        }
+        return result;
+    }
+
     /**
      * Check-in a guest into a room.
      *
@@ -220,7 +797,7 @@ public class Hotel {
     public Hotel checkIn() {
         System.out.println("Checking in");
         System.out.println("Pass room number: ...");
-        Integer roomId = 0;
+        int roomId = 0;
         while (true) {
             String tmp = scanner.nextLine().strip();
             if (tmp.equals("exit")) return this;
@@ -239,13 +816,7 @@ public class Hotel {
         System.out.println("Room number: " + roomId);
         System.out.println("Pass guest name: ...");
         String guestName = scanner.nextLine().strip();
-        Guest guest;
-        if (guests.containsKey(guestName)) {
-            guest = guests.get(guestName);
-        } else {
-            guest = new Guest(guestName);
-            guests.put(guestName, guest);
-        }
+        Guest guest = guest(guestName);
         try {
             rentRoom(guest, roomId);
             System.out.println("Checking in: " + guestName + " in room number: " + roomId);
@@ -261,13 +832,9 @@ public class Hotel {
                     for (int i = 0; i < tmp; i++) {
                         System.out.println("Pass guest name: ...");
                         guestName = scanner.nextLine().strip();
-                        if (guests.containsKey(guestName)) {
-                            guest = guests.get(guestName);
-                        } else {
-                            guest = new Guest(guestName);
-                            guests.put(guestName, guest);
-                        }
+                        guest = guest(guestName);
                         rooms.get(roomId).addGuest(guest);
+                        awaitJournal();
                         System.out.println("Checking in: " + guestName + " in room number: " + roomId);
                     }
                     return this;
@@ -278,6 +845,217 @@ public class Hotel {
         }
     }
 
+    /**
+     * Check-in guests into a room without prompting.
+     * The first guest rents the room, the others are added as extra guests. The party is checked against the
+     * room before anything changes, and the guests are added under the room's lock, so a check-in happens
+     * completely or not at all.
+     *
+     * @param roomId The ID of the room.
+     * @param guestNames The names of the guests, at least one.
+     * @param out The writer to print to.
+     * @return The current Hotel instance after checking in the guests.
+     * @throws IllegalArgumentException If no guest is given, a guest is listed twice, the room is not found,
+     *                                  occupied or too small.
+     */
+    public Hotel checkIn(int roomId, List<String> guestNames, PrintWriter out) {
+        if (guestNames.isEmpty()) {
+            throw new IllegalArgumentException("Pass at least one guest name.");
+        }
+        if (new HashSet<>(guestNames).size() < guestNames.size()) {
+            throw new IllegalArgumentException("A guest is listed twice.");
+        }
+        Room room = lookup(roomId);
+        if (room == null) {
+            throw new IllegalArgumentException("Room not found.");
+        }
+        if (guestNames.size() > room.getCapacity()) {
+            throw new IllegalArgumentException("Room " + roomId + " sleeps at most " + room.getCapacity() + " guests.");
+        }
+        Lock lock = floorLock(room.getFloor());
+        lock.lock();
+        try {
+            if (!room.tryRent(guest(guestNames.get(0)), LocalDate.now())) {
+                metrics.bookingFailed();
+                throw new IllegalArgumentException(room.isOccupied() ? "Room already occupied." : "Room reserved for another guest.");
+            }
+            metrics.booked();
+            for (int i = 1; i < guestNames.size(); i++) {
+                room.addGuest(guest(guestNames.get(i)));
+            }
+        } finally {
+            lock.unlock();
+        }
+        awaitJournal();
+        for (String guestName : guestNames) {
+            out.println("Checking in: " + guestName + " in room number: " + roomId);
+        }
+        return this;
+    }
+
+    /**
+     * Books rooms for a group, all of them or none.
+     * Rooms next to each other on one floor are preferred; otherwise the rooms come from the floors with
+     * the most free rooms. The first guests become the main guests of the rooms and the others are spread
+     * over the rooms by their free capacity. The rooms are picked without locking, then the locks of their
+     * floors are taken once, the picks checked and all rooms rented in one pass; if another desk took one
+     * of them meanwhile, the rooms are picked again with every floor locked.
+     *
+     * @param guestNames The names of the members of the group, in the order they should share rooms.
+     * @param roomCount The number of rooms to book.
+     * @return The booked rooms.
+     * @throws IllegalArgumentException If the group is smaller than the number of rooms, a guest is listed twice,
+     *                                  or there are not enough free rooms or beds.
+     */
+    public List<Room> bookGroup(List<String> guestNames, int roomCount) {
+        if (roomCount <= 0 || guestNames.size() < roomCount) {
+            throw new IllegalArgumentException("A group needs at least one room and one guest per room.");
+        }
+        if (new HashSet<>(guestNames).size() < guestNames.size()) {
+            throw new IllegalArgumentException("A guest is listed twice.");
+        }
+        long today = LocalDate.now().toEpochDay();
+        List<Room> booked = null;
+        for (int attempt = 0; attempt < 3 && booked == null; attempt++) {
+            List<Room> picked = pickGroupRooms(roomCount, guestNames.size(), today);
+            BitSet locks = new BitSet(FLOOR_LOCKS);
+            for (Room room : picked) {
+                locks.set(room.getFloor() & (FLOOR_LOCKS - 1));
+            }
+            lockFloors(locks);
+            try {
+                if (picked.stream().allMatch(room -> room.isFreeOn(today))) {
+                    booked = rentGroup(picked, guestNames, today);
+                }
+            } finally {
+                unlockFloors(locks);
+            }
+        }
+        if (booked == null) {
+            lockAllFloors();
+            try {
+                booked = rentGroup(pickGroupRooms(roomCount, guestNames.size(), today), guestNames, today);
+            } finally {
+                unlockAllFloors();
+            }
+        }
+        awaitJournal();
+        return booked;
+    }
+
+    /**
+     * Picks the rooms for a group among the rooms neither occupied nor reserved today.
+     * The candidates come from the vacancy index and today's reservations as bit sets by ordinal, and runs of
+     * free rooms are found by jumping from one set bit to the next, so only the free rooms are looked at.
+     * Without the floor locks a candidate may be taken meanwhile; the caller checks the picks under the locks.
+     *
+     * @param roomCount The number of rooms.
+     * @param partySize The number of guests, at most the sum of the capacities of the rooms.
+     * @param today Today, as an epoch day.
+     * @return The rooms, in room id order within each floor.
+     */
+    private List<Room> pickGroupRooms(int roomCount, int partySize, long today) {
+        int size = store.size();
+        BitSet candidates = availability.free(size, today, today + 1);
+        candidates.and(vacancies.freeRooms());
+        // First choice: a run of rooms with consecutive ids on one floor with enough beds
+        List<Room> run = new ArrayList<>(roomCount);
+        int beds = 0;
+        for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+            Room room = store.room(ordinal);
+            if (!room.isFreeOn(today)) {
+                candidates.clear(ordinal);
+                continue;
+            }
+            Room last = run.isEmpty() ? null : run.get(run.size() - 1);
+            if (last != null && (room.getRoomId() != last.getRoomId() + 1 || room.getFloor() != last.getFloor())) {
+                run.clear();
+                beds = 0;
+            }
+            run.add(room);
+            beds += room.getCapacity();
+            if (run.size() > roomCount) {
+                beds -= run.remove(0).getCapacity();
+            }
+            if (run.size() == roomCount && beds >= partySize) {
+                return run;
+            }
+        }
+        int free = candidates.cardinality();
+        if (free < roomCount) {
+            throw new IllegalArgumentException("Only " + free + " free rooms, " + roomCount + " needed.");
+        }
+        // Otherwise fill up from the floors with the most free rooms, or take the largest rooms if beds run short
+        IntObjectMap<List<Room>> byFloor = new IntObjectMap<>();
+        List<List<Room>> freeByFloor = new ArrayList<>();
+        for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+            Room room = store.room(ordinal);
+            List<Room> floor = byFloor.get(room.getFloor());
+            if (floor == null) {
+                floor = new ArrayList<>();
+                byFloor.put(room.getFloor(), floor);
+                freeByFloor.add(floor);
+            }
+            floor.add(room);
+        }
+        freeByFloor.sort((a, b) -> Integer.compare(b.size(), a.size()));
+        List<Room> picked = new ArrayList<>(roomCount);
+        for (List<Room> floor : freeByFloor) {
+            for (int i = 0; i < floor.size() && picked.size() < roomCount; i++) {
+                picked.add(floor.get(i));
+            }
+        }
+        if (beds(picked) < partySize) {
+            List<Room> all = new ArrayList<>(free);
+            freeByFloor.forEach(all::addAll);
+            all.sort((a, b) -> Integer.compare(b.getCapacity(), a.getCapacity()));
+            picked = new ArrayList<>(all.subList(0, roomCount));
+            if (beds(picked) < partySize) {
+                throw new IllegalArgumentException("Not enough beds for " + partySize + " guests in " + roomCount + " rooms.");
+            }
+        }
+        return picked;
+    }
+
+    private static int beds(List<Room> rooms) {
+        int beds = 0;
+        for (Room room : rooms) {
+            beds += room.getCapacity();
+        }
+        return beds;
+    }
+
+    /**
+     * Rents the picked rooms to the group. The locks of all their floors must be held and the rooms free.
+     */
+    private List<Room> rentGroup(List<Room> picked, List<String> guestNames, long today) {
+        // One guest per room, then every other guest to the room with the most free beds
+        int[] counts = new int[picked.size()];
+        Arrays.fill(counts, 1);
+        for (int g = picked.size(); g < guestNames.size(); g++) {
+            int best = 0;
+            for (int i = 1; i < counts.length; i++) {
+                if (picked.get(i).getCapacity() - counts[i] > picked.get(best).getCapacity() - counts[best]) {
+                    best = i;
+                }
+            }
+            counts[best]++;
+        }
+        LocalDate date = LocalDate.ofEpochDay(today);
+        int next = 0;
+        for (int i = 0; i < picked.size(); i++) {
+            Room room = picked.get(i);
+            if (!room.tryRent(guest(guestNames.get(next++)), date)) {
+                throw new IllegalStateException("Room " + room.getRoomId() + " was taken while its floor was locked");
+            }
+            metrics.booked();
+            for (int c = 1; c < counts[i]; c++) {
+                room.addGuest(guest(guestNames.get(next++)));
+            }
+        }
+        return picked;
+    }
+
     /**
      * Check-out a guest from a room.
      *
@@ -300,11 +1078,63 @@ public class Hotel {
             }
         }
         long price = room.checkOut();
+        metrics.checkedOut();
+        awaitJournal();
         System.out.println("Checking out from room number: " + roomId);
         System.out.println("Charge: " + price);
         return this;
     }
 
+    /**
+     * Check-out the guests from a room without prompting.
+     *
+     * @param roomId The ID of the room.
+     * @param out The writer to print to.
+     * @return The current Hotel instance after checking out the guests.
+     * @throws IllegalArgumentException If the room is not found or not occupied.
+     */
+    public Hotel checkOut(int roomId, PrintWriter out) {
+        Room room = lookup(roomId);
+        if (room == null) {
+            throw new IllegalArgumentException("Room not found.");
+        }
+        long price = room.checkOut();
+        metrics.checkedOut();
+        awaitJournal();
+        out.println("Checking out from room number: " + roomId);
+        out.println("Charge: " + price);
+        return this;
+    }
+
+    /**
+     * Returns the room with the given ID, counting the lookups that find nothing.
+     *
+     * @param roomId The ID of the room.
+     * @return The room, or null if there is none with that ID.
+     */
+    private Room lookup(int roomId) {
+        Room room = rooms.get(roomId);
+        if (room == null) {
+            metrics.lookupMissed();
+        }
+        return room;
+    }
+
+    /**
+     * Parses a room number passed as a command argument.
+     *
+     * @param roomNumber The room number to parse.
+     * @return The room ID.
+     * @throws IllegalArgumentException If the room number is not a number.
+     */
+    static int parseRoomId(String roomNumber) {
+        try {
+            return Integer.parseInt(roomNumber);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid room number: " + roomNumber);
+        }
+    }
+
     /**
      * Change the check-in date for a room.
      *
@@ -314,6 +1144,7 @@ public class Hotel {
     public void changeTime(LocalDate date, int roomId) {
         try {
             rooms.get(roomId).setCheckInDate(date);
+            awaitJournal();
         } catch (Exception e) {
             System.out.println(e.getMessage());
         }
@@ -0,0 +1,70 @@
+/**
+ * A change to a room, as published on the hotel's event bus.
+ * Events are slots of a ring buffer that are filled in again for every new change,
+ * so a handler must copy what it needs before it returns.
+ */
+public class HotelEvent {
+    // Event types
+    public static final byte RENTED = 1;
+    public static final byte GUEST_ADDED = 2;
+    public static final byte CHECKED_OUT = 3;
+
+    private byte type;
+    private int roomId;
+    private String guest;
+    private long epochDay;
+    private long amount;
+
+    void set(byte type, int roomId, String guest, long epochDay, long amount) {
+        this.type = type;
+        this.roomId = roomId;
+        this.guest = guest;
+        this.epochDay = epochDay;
+        this.amount = amount;
+    }
+
+    /**
+     * Returns the type of the event: RENTED, GUEST_ADDED or CHECKED_OUT.
+     *
+     * @return The type.
+     */
+    public byte getType() {
+        return type;
+    }
+
+    /**
+     * Returns the ID of the room that changed.
+     *
+     * @return The room ID.
+     */
+    public int getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * Returns the name of the guest who rented or joined the room, or of the main guest checking out.
+     *
+     * @return The guest name.
+     */
+    public String getGuest() {
+        return guest;
+    }
+
+    /**
+     * Returns the day of the change as an epoch day: the check-in day of a rent, the check-out day of a check-out.
+     *
+     * @return The epoch day, 0 for an added guest.
+     */
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    /**
+     * Returns the charge of a check-out.
+     *
+     * @return The charge, 0 for other events.
+     */
+    public long getAmount() {
+        return amount;
+    }
+}
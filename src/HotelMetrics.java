@@ -0,0 +1,106 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters of the hotel's booking paths and latency histograms of its commands.
+ * Counters are striped, so desks working at the same time do not contend on them.
+ */
+public class HotelMetrics implements HotelMetricsMBean {
+    private final LongAdder bookings = new LongAdder();
+    private final LongAdder failedBookings = new LongAdder();
+    private final LongAdder checkouts = new LongAdder();
+    private final LongAdder lookupMisses = new LongAdder();
+    private final LongAdder commandErrors = new LongAdder();
+    // One histogram per command, in the order the commands were registered
+    private final List<LatencyHistogram> commandLatencies = new ArrayList<>();
+
+    void booked() {
+        bookings.increment();
+    }
+
+    void bookingFailed() {
+        failedBookings.increment();
+    }
+
+    void checkedOut() {
+        checkouts.increment();
+    }
+
+    void lookupMissed() {
+        lookupMisses.increment();
+    }
+
+    void commandFailed() {
+        commandErrors.increment();
+    }
+
+    /**
+     * Returns the latency histogram of a command, creating it on first use.
+     *
+     * @param command The name of the command.
+     * @return The histogram of the command.
+     */
+    synchronized LatencyHistogram commandLatency(String command) {
+        for (LatencyHistogram histogram : commandLatencies) {
+            if (histogram.getName().equals(command)) {
+                return histogram;
+            }
+        }
+        LatencyHistogram histogram = new LatencyHistogram(command);
+        commandLatencies.add(histogram);
+        return histogram;
+    }
+
+    /**
+     * Returns the latency histograms of all commands.
+     *
+     * @return A copy of the list of histograms.
+     */
+    synchronized List<LatencyHistogram> commandLatencies() {
+        return new ArrayList<>(commandLatencies);
+    }
+
+    @Override
+    public long getBookings() {
+        return bookings.sum();
+    }
+
+    @Override
+    public long getFailedBookings() {
+        return failedBookings.sum();
+    }
+
+    @Override
+    public long getCheckouts() {
+        return checkouts.sum();
+    }
+
+    @Override
+    public long getLookupMisses() {
+        return lookupMisses.sum();
+    }
+
+    @Override
+    public long getCommandErrors() {
+        return commandErrors.sum();
+    }
+
+    /**
+     * Registers the counters and the histogram of every command known so far with the platform MBean server,
+     * as hotel:type=Metrics and hotel:type=CommandLatency,name=&lt;command&gt;.
+     *
+     * @throws JMException If an MBean cannot be registered, for example because it already is.
+     */
+    public void registerMBeans() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, new ObjectName("hotel:type=Metrics"));
+        for (LatencyHistogram histogram : commandLatencies()) {
+            server.registerMBean(histogram, new ObjectName("hotel:type=CommandLatency,name=" + ObjectName.quote(histogram.getName())));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * Management interface of the hotel's booking counters.
+ */
+public interface HotelMetricsMBean {
+    long getBookings();
+
+    long getFailedBookings();
+
+    long getCheckouts();
+
+    long getLookupMisses();
+
+    long getCommandErrors();
+}
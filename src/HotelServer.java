@@ -0,0 +1,131 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the console commands over TCP, so many desks can work on the hotel at once.
+ * Every connection is served by its own thread: a virtual thread when the runtime has them,
+ * otherwise a thread from a cached pool.
+ *
+ * The protocol is line based. A client sends one command with its arguments per line, as in a batch file,
+ * and receives the output of the command followed by a line "OK", or by "ERROR " and the message if it failed.
+ * "exit" or "quit" closes the connection; they never stop the server.
+ */
+public class HotelServer implements Closeable {
+    // Connections waiting to be accepted before new ones are refused
+    private static final int BACKLOG = 4096;
+
+    private final CommandRegistry commands;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = connectionExecutor();
+
+    /**
+     * Opens a server on the loopback address.
+     *
+     * @param commands The registry to look the commands up in, bound to the hotel to work on.
+     * @param port The port to listen on, 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    public HotelServer(CommandRegistry commands, int port) throws IOException {
+        this.commands = commands;
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the server is closed, handing each one to its own thread.
+     *
+     * @throws IOException If accepting fails for another reason than the server being closed.
+     */
+    public void run() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            connections.execute(() -> serve(socket));
+        }
+    }
+
+    /**
+     * Stops accepting connections. Connections already open are served until their clients disconnect.
+     *
+     * @throws IOException If the server socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdown();
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] tokens = BatchRunner.tokenize(line);
+                if (tokens.length == 0) {
+                    continue;
+                }
+                if (tokens[0].equals("exit") || tokens[0].equals("quit")) {
+                    return;
+                }
+                try {
+                    commands.createCommand(tokens[0]).execute(Arrays.copyOfRange(tokens, 1, tokens.length), out);
+                    out.println("OK");
+                } catch (Exception e) {
+                    out.println("ERROR " + e.getMessage());
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // The client went away, nothing left to serve
+        }
+    }
+
+    /**
+     * Returns an executor starting a virtual thread per task when the runtime has virtual threads,
+     * and a cached pool of daemon threads otherwise.
+     *
+     * @return The executor for the connections.
+     */
+    static ExecutorService connectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "hotel-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,196 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a hotel on disk as a snapshot plus a journal of the changes made since.
+ * Opening the store restores the hotel from the latest snapshot and replays the journal on top of it.
+ * A new snapshot is taken on save, and in the background once the journal grows large,
+ * after which the journal starts over empty.
+ *
+ * Snapshots and journals come in numbered generations, hotel.snapshot.N with the journal hotel.journal.N
+ * of the changes made after it; the files without a number are generation 0. Saving writes the next
+ * generation under new names instead of replacing the current files, since a snapshot that was read is
+ * still mapped and some platforms refuse to replace or delete a mapped file. The older generation is deleted
+ * afterwards where possible, and otherwise on a later open. A journal only ever follows its own snapshot,
+ * so a crash between writing a snapshot and starting its journal cannot replay changes twice.
+ */
+public class HotelStore implements Closeable {
+    private static final String SNAPSHOT_FILE = "hotel.snapshot";
+    private static final String JOURNAL_FILE = "hotel.journal";
+    private static final String TMP_SUFFIX = ".tmp";
+    // Journal size after which a background snapshot is taken
+    private static final long SNAPSHOT_THRESHOLD_BYTES = 64L << 20;
+
+    private final Path directory;
+    private final ScheduledExecutorService snapshotter = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "hotel-snapshotter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Hotel hotel;
+    private Journal journal;
+    // Generation of the current snapshot and journal
+    private long generation;
+
+    /**
+     * Constructs a store keeping its files in the given directory.
+     *
+     * @param directory The directory for the snapshot and journal files.
+     */
+    public HotelStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Restores the saved state into an empty hotel and starts journaling its changes.
+     *
+     * @param hotel The empty hotel to restore into.
+     * @return True if any saved state was found, false if the hotel is still empty.
+     * @throws IOException If the saved state cannot be read or the journal cannot be opened.
+     */
+    public boolean open(Hotel hotel) throws IOException {
+        Files.createDirectories(directory);
+        generation = latestGeneration();
+        Path snapshot = snapshotFile(generation);
+        Path journalFile = journalFile(generation);
+        boolean restored = Files.exists(snapshot);
+        if (restored) {
+            Snapshot.read(snapshot, hotel);
+        }
+        restored |= Journal.replay(journalFile, hotel) > 0;
+        this.hotel = hotel;
+        this.journal = new Journal(journalFile);
+        hotel.journal = journal;
+        deleteGenerationsBefore(generation);
+        snapshotter.scheduleWithFixedDelay(this::saveIfJournalLarge, 1, 1, TimeUnit.MINUTES);
+        return restored;
+    }
+
+    /**
+     * Writes a snapshot of the hotel as the next generation and starts an empty journal after it.
+     * Bookings wait while the snapshot is written.
+     *
+     * @throws IOException If the snapshot cannot be written or the new journal cannot be opened.
+     */
+    public synchronized void save() throws IOException {
+        long next = generation + 1;
+        Path snapshot = snapshotFile(next);
+        Path tmp = directory.resolve(snapshot.getFileName() + TMP_SUFFIX);
+        Journal previous;
+        hotel.lockAllFloors();
+        try {
+            Snapshot.write(hotel, tmp);
+            Files.move(tmp, snapshot, StandardCopyOption.ATOMIC_MOVE);
+            previous = journal;
+            journal = new Journal(journalFile(next));
+            hotel.journal = journal;
+            generation = next;
+        } finally {
+            hotel.unlockAllFloors();
+        }
+        // Everything in the old journal is in the snapshot, closing it only releases whoever waits for it
+        previous.close();
+        deleteGenerationsBefore(next);
+    }
+
+    /**
+     * Stops journaling and writes the remaining journal records to disk.
+     *
+     * @throws IOException If the journal cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        snapshotter.shutdownNow();
+        if (journal != null) {
+            hotel.journal = null;
+            journal.close();
+        }
+    }
+
+    /**
+     * Finds the newest generation with a snapshot.
+     *
+     * @return The generation, 0 if there is no numbered snapshot.
+     * @throws IOException If the directory cannot be listed.
+     */
+    private long latestGeneration() throws IOException {
+        long latest = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SNAPSHOT_FILE + ".*")) {
+            for (Path file : files) {
+                latest = Math.max(latest, generationOf(file.getFileName().toString()));
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * Deletes the snapshots and journals of older generations, and temp files left by failed saves.
+     * A file that cannot be deleted yet, such as a snapshot that is still mapped, is left for a later open.
+     *
+     * @param current The generation to keep.
+     */
+    private void deleteGenerationsBefore(long current) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "hotel.*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long generation = generationOf(name);
+                if (name.endsWith(TMP_SUFFIX) || generation >= 0 && generation < current) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        // Left for the next open
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Left for the next open
+        }
+    }
+
+    /**
+     * Returns the generation a snapshot or journal file belongs to.
+     *
+     * @param name The file name.
+     * @return The generation, or -1 if the name is not that of a snapshot or journal.
+     */
+    private static long generationOf(String name) {
+        for (String base : new String[] {SNAPSHOT_FILE, JOURNAL_FILE}) {
+            if (name.equals(base)) {
+                return 0;
+            }
+            if (name.startsWith(base + ".")) {
+                try {
+                    return Long.parseLong(name.substring(base.length() + 1));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private Path snapshotFile(long generation) {
+        return directory.resolve(generation == 0 ? SNAPSHOT_FILE : SNAPSHOT_FILE + "." + generation);
+    }
+
+    private Path journalFile(long generation) {
+        return directory.resolve(generation == 0 ? JOURNAL_FILE : JOURNAL_FILE + "." + generation);
+    }
+
+    private void saveIfJournalLarge() {
+        try {
+            if (journal.size() > SNAPSHOT_THRESHOLD_BYTES) {
+                save();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to save snapshot: " + e.getMessage());
+        }
+    }
+}
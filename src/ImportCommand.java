@@ -0,0 +1,85 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class ImportCommand extends Command {
+    private static final String USAGE = "Usage: import <rooms|guests|stays> <file>";
+
+    // Whether only files under root can be read
+    private final boolean restricted;
+    // Directory the files of a restricted command are read from, null if it reads none
+    private final Path root;
+
+    /**
+     * Constructs the import command of the local console and batch runs, which can read any file.
+     */
+    public ImportCommand() {
+        this.restricted = false;
+        this.root = null;
+    }
+
+    /**
+     * Constructs the import command of remote desks, which only reads files under the given directory.
+     * File names are taken relative to the directory.
+     *
+     * @param root The directory to import from, or null to refuse every import.
+     */
+    public ImportCommand(Path root) {
+        this.restricted = true;
+        this.root = root == null ? null : root.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void execute() {
+        hotel.out.println("Pass what to import (rooms, guests or stays) and the file: ...");
+        execute(BatchRunner.tokenize(hotel.scanner.nextLine()), hotel.out);
+    }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        if (args.length != 2) {
+            throw new IllegalArgumentException(USAGE);
+        }
+        CsvImporter.Kind kind = switch (args[0]) {
+            case "rooms" -> CsvImporter.Kind.ROOMS;
+            case "guests" -> CsvImporter.Kind.GUESTS;
+            case "stays" -> CsvImporter.Kind.STAYS;
+            default -> throw new IllegalArgumentException(USAGE);
+        };
+        CsvImporter importer = new CsvImporter(hotel, kind);
+        int failed;
+        try (BufferedReader in = Files.newBufferedReader(resolve(args[1]))) {
+            failed = importer.run(in, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to import: " + e.getMessage(), e);
+        }
+        out.println("Imported " + importer.getImported() + " " + args[0] + ", " + failed + " line(s) failed");
+        out.flush();
+    }
+
+    /**
+     * Finds the file to import, checking that a restricted command may read it.
+     * Links are followed before the check, so a link under the directory cannot lead out of it.
+     *
+     * @param name The file name as given.
+     * @return The path of the file.
+     * @throws IllegalArgumentException If the command is restricted and the file is not under its directory.
+     * @throws IOException If the file cannot be found.
+     */
+    private Path resolve(String name) throws IOException {
+        if (!restricted) {
+            return Path.of(name);
+        }
+        if (root == null) {
+            throw new IllegalArgumentException("Import is off for remote desks, start the server with --import-dir <directory>");
+        }
+        Path file = root.resolve(name).normalize();
+        if (!file.startsWith(root) || !file.toRealPath().startsWith(root.toRealPath())) {
+            throw new IllegalArgumentException("Only files under the import directory can be imported.");
+        }
+        return file;
+    }
+}
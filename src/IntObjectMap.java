@@ -0,0 +1,351 @@
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * A map from primitive int keys to objects.
+ * Works like MyMap but never boxes its keys, so lookups and inserts of existing keys do not allocate.
+ * Entries are kept in insertion order.
+ *
+ * @param <V> The type of the values.
+ */
+public class IntObjectMap<V> {
+    // Marker for entries that have been removed but not yet compacted away
+    private static final Object DELETED = new Object();
+    // Table slot states, any other value is an entry index + 1
+    private static final int EMPTY = 0;
+    private static final int TOMBSTONE = -1;
+    private static final int MIN_CAPACITY = 8;
+
+    /**
+     * Receives the entries of the map without boxing the keys.
+     *
+     * @param <V> The type of the values.
+     */
+    public interface EntryConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    // Entries in insertion order
+    private int[] keys;
+    private Object[] values;
+    // Open-addressing index (linear probing) pointing into the entry arrays
+    private int[] table;
+    // Number of entry slots used, including removed ones
+    private int used;
+    // Number of live key-value pairs
+    private int size;
+    // Bumped on every structural change so iterations can detect concurrent modification
+    private int modCount;
+
+    /**
+     * Constructs an empty IntObjectMap instance.
+     */
+    public IntObjectMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty IntObjectMap instance sized to hold the given number of entries without resizing.
+     *
+     * @param expectedSize The number of entries the map is expected to hold.
+     */
+    public IntObjectMap(int expectedSize) {
+        allocate(Math.max(MIN_CAPACITY, expectedSize));
+    }
+
+    /**
+     * Puts a key-value pair into the map.
+     * If the key already exists, updates its associated value.
+     *
+     * @param key The key to be added or updated in the map.
+     * @param value The value to be associated with the key.
+     * @return The previous value associated with the key, or null if the key was not already in the map.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        int firstTombstone = -1;
+        while (table[slot] != EMPTY) {
+            int entry = table[slot] - 1;
+            if (entry < 0) { // Remember the first tombstone so it can be reused
+                if (firstTombstone == -1) firstTombstone = slot;
+            } else if (keys[entry] == key) { // If key exists, update the value
+                V previous = (V) values[entry];
+                values[entry] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (used == keys.length) { // No room for a new entry, grow or compact and try again
+            rebuild();
+            return put(key, value);
+        }
+        int entry = used++;
+        keys[entry] = key;
+        values[entry] = value;
+        table[firstTombstone == -1 ? slot : firstTombstone] = entry + 1;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    /**
+     * Makes room for the given number of entries in total, so adding up to that many does not resize again.
+     *
+     * @param expectedSize The number of entries the map is expected to hold.
+     */
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize > keys.length) {
+            rebuild(expectedSize);
+        }
+    }
+
+    /**
+     * Retrieves the value associated with the given key.
+     *
+     * @param key The key whose associated value is to be returned.
+     * @return The value associated with the key, or null if the key is not found.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = find(key);
+        return slot == -1 ? null : (V) values[table[slot] - 1];
+    }
+
+    /**
+     * Returns all the keys in the map, in insertion order.
+     *
+     * @return A new array with all the keys in the map.
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < used; i++) {
+            if (values[i] != DELETED) result[n++] = keys[i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns a list of all the values in the map, in insertion order.
+     *
+     * @return A list of all the values in the map.
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (int i = 0; i < used; i++) {
+            if (values[i] != DELETED) result.add((V) values[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a read-only view of the values in the map, in insertion order.
+     * The view is backed by the map, so nothing is copied; its iterators fail fast if the map is modified.
+     *
+     * @return A view of the values in the map.
+     */
+    public Collection<V> valueView() {
+        return new AbstractCollection<>() {
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Iterator<V> iterator() {
+                return new Iterator<>() {
+                    private final int expectedModCount = modCount;
+                    private int next = skipDeleted(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < used;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public V next() {
+                        if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                        if (next >= used) throw new NoSuchElementException();
+                        V value = (V) values[next];
+                        next = skipDeleted(next + 1);
+                        return value;
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Passes every entry to the consumer, in insertion order, without copying or boxing.
+     *
+     * @param consumer The consumer to receive the entries.
+     * @throws ConcurrentModificationException If the map is structurally modified during the iteration.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> consumer) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < used; i++) {
+            if (values[i] == DELETED) continue;
+            consumer.accept(keys[i], (V) values[i]);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Passes every value to the consumer, in insertion order, without copying.
+     *
+     * @param consumer The consumer to receive the values.
+     * @throws ConcurrentModificationException If the map is structurally modified during the iteration.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> consumer) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < used; i++) {
+            if (values[i] == DELETED) continue;
+            consumer.accept((V) values[i]);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Removes the key-value pair associated with the given key.
+     *
+     * @param key The key whose associated key-value pair is to be removed.
+     * @return The value associated with the removed key, or null if the key was not found.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = find(key);
+        if (slot == -1) { // If key doesn't exist, return null
+            return null;
+        }
+        int entry = table[slot] - 1;
+        V previous = (V) values[entry];
+        table[slot] = TOMBSTONE;
+        values[entry] = DELETED;
+        size--;
+        modCount++;
+        return previous;
+    }
+
+    /**
+     * Returns the number of key-value pairs in the map.
+     *
+     * @return The number of key-value pairs in the map.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return True if the map is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if the map contains the given key.
+     *
+     * @param key The key to check for in the map.
+     * @return True if the key exists in the map, false otherwise.
+     */
+    public boolean containsKey(int key) {
+        return find(key) != -1;
+    }
+
+    /**
+     * Clears all the key-value pairs in the map.
+     */
+    public void clear() {
+        Arrays.fill(values, 0, used, null);
+        Arrays.fill(table, EMPTY);
+        used = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Finds the table slot holding the given key.
+     *
+     * @param key The key to look up.
+     * @return The slot index, or -1 if the key is not in the map.
+     */
+    private int find(int key) {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        while (table[slot] != EMPTY) {
+            int entry = table[slot] - 1;
+            if (entry >= 0 && keys[entry] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Compacts out removed entries and grows the storage if the map is more than half full.
+     */
+    private void rebuild() {
+        rebuild(Math.max(MIN_CAPACITY, size * 2));
+    }
+
+    /**
+     * Moves the live entries into new storage of the given capacity, compacting out removed ones.
+     *
+     * @param capacity The number of entries to make room for, at least the current size.
+     */
+    private void rebuild(int capacity) {
+        modCount++;
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        int oldUsed = used;
+        allocate(capacity);
+        int mask = table.length - 1;
+        for (int i = 0; i < oldUsed; i++) {
+            if (oldValues[i] == DELETED) continue;
+            int entry = used++;
+            keys[entry] = oldKeys[i];
+            values[entry] = oldValues[i];
+            int slot = hash(keys[entry]) & mask;
+            while (table[slot] != EMPTY) slot = (slot + 1) & mask;
+            table[slot] = entry + 1;
+        }
+    }
+
+    private int skipDeleted(int index) {
+        while (index < used && values[index] == DELETED) index++;
+        return index;
+    }
+
+    /**
+     * Allocates empty storage for the given number of entries.
+     * The table is kept at least twice as large as the entry arrays so probe chains stay short.
+     *
+     * @param capacity The number of entries to make room for.
+     */
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+        used = 0;
+    }
+
+    /**
+     * Scrambles the key so that sequential room ids do not form long probe runs.
+     *
+     * @param key The key to hash.
+     * @return The hash.
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
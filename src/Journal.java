@@ -0,0 +1,320 @@
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Append-only log of every change to the rooms of a hotel, in a compact binary format.
+ * Records are collected in memory and a background thread writes and forces them to disk in groups: while one
+ * group is forced, the records added meanwhile collect into the next one. A change costs a few bytes copied into
+ * a buffer; the caller then waits in sync until the force covering its record is done, so a change is only
+ * acknowledged once it is durable, and many desks waiting at once share one force.
+ */
+public class Journal implements Closeable {
+    // Record types
+    static final byte ADD_ROOM = 1;
+    static final byte RENT = 2;
+    static final byte ADD_GUEST = 3;
+    static final byte CHECK_OUT = 4;
+    static final byte SET_CHECK_IN_DATE = 5;
+    static final byte RESERVE = 6;
+
+    private final FileChannel channel;
+    private final Thread flusher;
+    // Records waiting to be written, and the buffer the last group was written from
+    private ByteBuffer pending = ByteBuffer.allocate(1 << 16);
+    private ByteBuffer writing = ByteBuffer.allocate(1 << 16);
+    // Bytes of records taken out of pending so far, guarded by this journal
+    private long handedOff;
+    // True while the flusher waits for records, guarded by this journal
+    private boolean flusherIdle;
+    // Held while a group is written so only one write and force runs at a time
+    private final Object flushLock = new Object();
+    // Bytes of records on disk so far; callers of sync wait on forced for it to pass their records
+    private volatile long durable;
+    private final Object forced = new Object();
+    // The error that stopped the journal, reported to every caller of sync from then on
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    /**
+     * Opens the journal file for appending, creating it if needed, and starts the flusher thread.
+     *
+     * @param file The journal file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public Journal(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.flusher = new Thread(this::flushContinuously, "journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    synchronized void addRoom(int floor, int roomId, int capacity, int price) {
+        ensureRoom(13);
+        pending.put(ADD_ROOM).putInt(floor).putInt(roomId).putInt(capacity).putInt(price);
+        recorded();
+    }
+
+    synchronized void rent(int roomId, String guest, LocalDate checkInDate) {
+        byte[] name = guest.getBytes(StandardCharsets.UTF_8);
+        ensureRoom(15 + name.length);
+        pending.put(RENT).putInt(roomId).putLong(checkInDate.toEpochDay());
+        putString(name);
+        recorded();
+    }
+
+    synchronized void addGuest(int roomId, String guest) {
+        byte[] name = guest.getBytes(StandardCharsets.UTF_8);
+        ensureRoom(7 + name.length);
+        pending.put(ADD_GUEST).putInt(roomId);
+        putString(name);
+        recorded();
+    }
+
+    synchronized void checkOut(int roomId, LocalDate checkOutDate) {
+        ensureRoom(13);
+        pending.put(CHECK_OUT).putInt(roomId).putLong(checkOutDate.toEpochDay());
+        recorded();
+    }
+
+    synchronized void setCheckInDate(int roomId, LocalDate checkInDate) {
+        ensureRoom(13);
+        pending.put(SET_CHECK_IN_DATE).putInt(roomId).putLong(checkInDate.toEpochDay());
+        recorded();
+    }
+
+    synchronized void reserve(int roomId, Reservation reservation) {
+        byte[] name = reservation.getGuest().getName().getBytes(StandardCharsets.UTF_8);
+        ensureRoom(23 + name.length);
+        pending.put(RESERVE).putInt(roomId).putLong(reservation.getFromDay()).putLong(reservation.getToDay());
+        putString(name);
+        recorded();
+    }
+
+    /**
+     * Waits until every record added so far, on any thread, is written and forced to disk.
+     * Call this after a change and before acknowledging it, without holding locks other desks need:
+     * the records they add meanwhile then go to disk in the same force.
+     *
+     * @throws UncheckedIOException If the journal failed to write, or the thread was interrupted while waiting.
+     */
+    public void sync() {
+        long target;
+        synchronized (this) {
+            target = handedOff + pending.position();
+        }
+        if (durable >= target) {
+            return;
+        }
+        synchronized (forced) {
+            while (durable < target) {
+                IOException failure = this.failure;
+                if (failure != null) {
+                    throw new UncheckedIOException("Failed to write journal: " + failure.getMessage(), failure);
+                }
+                try {
+                    forced.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for the journal"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes all collected records to the file and forces them to disk.
+     *
+     * @throws IOException If writing fails.
+     */
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            ByteBuffer batch;
+            long target;
+            synchronized (this) {
+                if (pending.position() == 0) {
+                    return;
+                }
+                batch = pending;
+                pending = writing;
+                writing = batch;
+                handedOff += batch.position();
+                target = handedOff;
+            }
+            batch.flip();
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            channel.force(false);
+            batch.clear();
+            forcedUpTo(target);
+        }
+    }
+
+    /**
+     * Returns the size of the journal, including records not yet written.
+     *
+     * @return The size in bytes.
+     * @throws IOException If the file size cannot be read.
+     */
+    public long size() throws IOException {
+        synchronized (this) {
+            return channel.size() + pending.position();
+        }
+    }
+
+    /**
+     * Stops the flusher thread, writes the remaining records and closes the file.
+     *
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        channel.close();
+    }
+
+    /**
+     * Applies every record in the journal file to the hotel, in order.
+     * A record cut short by a crash ends the replay; the changes before it are kept.
+     * The hotel must not have a journal attached while replaying.
+     *
+     * @param file The journal file.
+     * @param hotel The hotel to apply the records to.
+     * @return The number of records applied.
+     * @throws IOException If the file cannot be read or holds an unknown record.
+     */
+    public static int replay(Path file, Hotel hotel) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            while (true) {
+                int type = in.read();
+                if (type == -1) {
+                    return count;
+                }
+                switch (type) {
+                    case ADD_ROOM -> {
+                        int floor = in.readInt();
+                        hotel.restoreRoom(floor, in.readInt(), in.readInt(), in.readInt());
+                    }
+                    case RENT -> {
+                        Room room = hotel.rooms.get(in.readInt());
+                        LocalDate checkInDate = LocalDate.ofEpochDay(in.readLong());
+                        if (!room.tryRent(hotel.guest(readString(in)), checkInDate)) {
+                            throw new IOException("Journal rents occupied room " + room.getRoomId());
+                        }
+                    }
+                    case ADD_GUEST -> {
+                        Room room = hotel.rooms.get(in.readInt());
+                        room.addGuest(hotel.guest(readString(in)));
+                    }
+                    case CHECK_OUT -> hotel.rooms.get(in.readInt()).checkOut(LocalDate.ofEpochDay(in.readLong()));
+                    case SET_CHECK_IN_DATE -> hotel.rooms.get(in.readInt()).setCheckInDate(LocalDate.ofEpochDay(in.readLong()));
+                    case RESERVE -> {
+                        Room room = hotel.rooms.get(in.readInt());
+                        long fromDay = in.readLong();
+                        long toDay = in.readLong();
+                        room.addReservation(new Reservation(hotel.guest(readString(in)), fromDay, toDay));
+                    }
+                    default -> throw new IOException("Unknown journal record " + type + " after " + count + " records");
+                }
+                count++;
+            }
+        } catch (EOFException e) {
+            return count;
+        }
+    }
+
+    // Called at the end of every record method, while holding this journal's monitor
+    private void recorded() {
+        if (flusherIdle) {
+            flusherIdle = false;
+            notifyAll();
+        }
+    }
+
+    private void forcedUpTo(long target) {
+        synchronized (forced) {
+            durable = target;
+            forced.notifyAll();
+        }
+    }
+
+    /**
+     * Writes the records as they come: waits for records, then writes and forces all that have collected.
+     * A failed write stops the journal, since the records after it could not be replayed without it.
+     */
+    private void flushContinuously() {
+        while (true) {
+            synchronized (this) {
+                while (pending.position() == 0 && !closed) {
+                    flusherIdle = true;
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+            }
+            try {
+                flush();
+            } catch (IOException e) {
+                System.err.println("Failed to write journal: " + e.getMessage());
+                failure = e;
+                synchronized (forced) {
+                    forced.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    // Strings are stored as a two-byte length followed by the UTF-8 bytes
+    private void putString(byte[] bytes) {
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Guest name too long");
+        }
+        pending.putShort((short) bytes.length).put(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readUnsignedShort()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void ensureRoom(int bytes) {
+        if (pending.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+    }
+}
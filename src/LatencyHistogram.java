@@ -0,0 +1,118 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds with log-linear buckets, in the style of HdrHistogram.
+ * Every power of two is split into 32 buckets, so a recorded value is known to within about 3%
+ * over the whole range of a long. Recording is one atomic increment, so it can stay on in production.
+ * Percentiles are computed on demand by walking the buckets.
+ */
+public class LatencyHistogram implements LatencyHistogramMBean {
+    // Bits below the highest set bit kept exactly; values below 2^SUB_BITS get a bucket each
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BITS) * SUB_BUCKETS;
+
+    private final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Constructs an empty histogram.
+     *
+     * @param name The name of what is measured, used for the MBean.
+     */
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos The latency in nanoseconds, negative values count as zero.
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucket(Math.max(nanos, 0)));
+    }
+
+    /**
+     * Returns the latency below which the given fraction of the recorded latencies falls.
+     *
+     * @param fraction The fraction, between 0 and 1, for example 0.99 for the 99th percentile.
+     * @return The highest latency in the bucket holding the percentile, 0 if nothing was recorded.
+     */
+    public long percentile(double fraction) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return highestValue(i);
+            }
+        }
+        return highestValue(BUCKETS - 1);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return percentile(0.5);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return percentile(0.99);
+    }
+
+    @Override
+    public long getP999Nanos() {
+        return percentile(0.999);
+    }
+
+    @Override
+    public long getMaxNanos() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts.get(i) != 0) {
+                return highestValue(i);
+            }
+        }
+        return 0;
+    }
+
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long top = (bucket - SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * Management interface of a latency histogram, registered once per command.
+ */
+public interface LatencyHistogramMBean {
+    String getName();
+
+    long getCount();
+
+    long getP50Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+
+    long getMaxNanos();
+}
@@ -1,6 +1,13 @@
+import java.io.PrintWriter;
+
 public class ListCommand extends Command {
     @Override
     public void execute() {
         hotel.list();
     }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        hotel.list(out);
+    }
 }
@@ -1,9 +1,17 @@
+import java.io.*;
 import java.net.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
 
 public class Main {
     static Hotel hotel = new Hotel();
@@ -12,38 +20,245 @@ public class Main {
         return hotel;
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        String batchFile = null;
+        Integer port = null;
+        Path eventLog = null;
+        Path importDir = null;
+        long repriceMinutes = 0;
+        int shardCount = 0;
+        HotelStore store = null;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            switch (args[i]) {
+                case "--batch" -> batchFile = args[i + 1];
+                case "--data" -> store = new HotelStore(Path.of(args[i + 1]));
+                case "--events" -> eventLog = Path.of(args[i + 1]);
+                case "--import-dir" -> importDir = Path.of(args[i + 1]);
+                case "--reprice-every" -> repriceMinutes = Long.parseLong(args[i + 1]);
+                case "--serve" -> port = Integer.parseInt(args[i + 1]);
+                case "--shards" -> shardCount = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (shardCount > 0) {
+            if (store != null || eventLog != null || repriceMinutes > 0) {
+                throw new IllegalArgumentException("A sharded hotel is kept in memory only, without --data, --events or --reprice-every");
+            }
+            runSharded(shardCount, batchFile, port);
+            return;
+        }
+        if (store == null || !store.open(hotel)) {
+            hotel.generateRooms(10, 10, 4, 100);
+        }
+        if (eventLog != null) {
+            attachEventLog(eventLog);
+        }
+        if (repriceMinutes > 0) {
+            scheduleRepricing(repriceMinutes);
+        }
+        if (store != null) {
+            HotelStore openStore = store;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    openStore.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to write journal: " + e.getMessage());
+                }
+            }));
+        }
+        // Remote desks may only import from the import directory, local runs from anywhere
+        CommandRegistry commandFactory = createCommands(store,
+                batchFile == null && port != null ? new ImportCommand(importDir) : new ImportCommand());
+        try {
+            hotel.metrics.registerMBeans();
+        } catch (JMException e) {
+            System.err.println("Failed to register metrics: " + e.getMessage());
+        }
+        if (batchFile != null) {
+            runBatch(batchFile, commandFactory);
+            return;
+        }
+        if (port != null) {
+            // Desks look rooms up without locks, so no room may be added while they are served
+            hotel.fixRooms();
+            serve(commandFactory, port);
+            return;
+        }
+        runConsole(commandFactory, "view, list, checkin, checkout, reserve, group, available, search, guest, stats, metrics, import, reprice, save, exit");
+    }
+
+    /**
+     * Runs a hotel split into shards, with the commands a sharded hotel offers, from a batch file,
+     * over the network or on the console.
+     *
+     * @param shardCount The number of shards.
+     * @param batchFile The path of the command file, "-" for standard input, or null.
+     * @param port The port to serve the commands on, or null.
+     * @throws IOException If the batch file cannot be read or the server cannot listen.
+     */
+    static void runSharded(int shardCount, String batchFile, Integer port) throws IOException {
+        try (ShardedHotel sharded = new ShardedHotel(shardCount)) {
+            sharded.generateRooms(10, 10, 4, 100);
+            CommandRegistry commandFactory = new CommandRegistry();
+            for (String name : ShardedCommand.NAMES) {
+                commandFactory.registerCommand(name, new ShardedCommand(sharded, name));
+            }
+            commandFactory.registerCommand("exit", new ExitCommand());
+            if (batchFile != null) {
+                runBatch(batchFile, commandFactory);
+            } else if (port != null) {
+                serve(commandFactory, port);
+            } else {
+                runConsole(commandFactory, String.join(", ", ShardedCommand.NAMES) + ", exit");
+            }
+        }
+    }
+
+    /**
+     * Serves the commands over TCP until the process ends.
+     *
+     * @param commands The registry to look the commands up in.
+     * @param port The port to listen on, 0 for any free port.
+     * @throws IOException If the server cannot listen.
+     */
+    static void serve(CommandRegistry commands, int port) throws IOException {
+        try (HotelServer server = new HotelServer(commands, port)) {
+            System.out.println("Listening on " + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort());
+            server.run();
+        }
+    }
+
+    /**
+     * Reads commands from the console and runs them until the exit command.
+     *
+     * @param commandFactory The registry to look the commands up in.
+     * @param names The names of the valid commands, for the prompt.
+     */
+    static void runConsole(CommandRegistry commandFactory, String names) {
         System.out.println("Hello World");
-        hotel.generateRooms(10, 10, 4, 100);
-        CommandRegistry commandFactory = new CommandRegistry();
-        commandFactory.registerCommand("checkin", CheckInCommand.class);
-        commandFactory.registerCommand("checkout", CheckOutCommand.class);
-        commandFactory.registerCommand("view", ViewCommand.class);
-        commandFactory.registerCommand("list", ListCommand.class);
-        commandFactory.registerCommand("exit", ExitCommand.class);
+        // Share the hotels' scanner, a second scanner on System.in would swallow its buffered input
+        Scanner scanner = Hotel.CONSOLE;
 
         while (true) {
-            Scanner scanner = new Scanner(System.in);
-            System.out.print("Please enter the command - valid commands are: view, list, checkin, checkout, save, exit: ");
+            System.out.print("Please enter the command - valid commands are: " + names + ": ");
             System.out.println();
-            String cmd = scanner.nextLine();
+            String[] cmd = BatchRunner.tokenize(scanner.nextLine());
+            if (cmd.length == 0) {
+                continue;
+            }
             try {
-                Command command = commandFactory.createCommand(cmd);
-                command.setHotel(hotel);
+                Command command = commandFactory.createCommand(cmd[0]);
                 if (command == null) {
                     System.err.println("No such command, please try again...");
                     continue;
                 }
-                command.execute();
+                // A command typed with its arguments runs without prompting
+                if (cmd.length > 1) {
+                    command.execute(Arrays.copyOfRange(cmd, 1, cmd.length), hotel.out);
+                } else {
+                    command.execute();
+                }
             } catch (Exception e) {
                 System.err.println(e.getMessage());
                 System.out.println("Please try again...");
             }
         }
+    }
 
+    /**
+     * Publishes the changes to the rooms on an event bus and appends them to a file from the bus's consumer thread.
+     * The events still waiting in the bus are written when the program ends.
+     *
+     * @param file The file to append the events to.
+     * @throws IOException If the file cannot be opened.
+     */
+    static void attachEventLog(Path file) throws IOException {
+        EventBus events = new EventBus(1 << 14);
+        EventLogWriter writer = new EventLogWriter(file);
+        events.addConsumer("event-log", writer, WaitStrategy.SLEEPING);
+        hotel.events = events;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            hotel.events = null;
+            events.close();
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("Failed to write events: " + e.getMessage());
+            }
+        }));
+    }
 
+    /**
+     * Recomputes the rates of all rooms for the current day now and then every given number of minutes,
+     * on a background thread.
+     *
+     * @param minutes The number of minutes between two runs.
+     */
+    static void scheduleRepricing(long minutes) {
+        PricingEngine engine = new PricingEngine(hotel);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "repricing");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                engine.reprice(LocalDate.now());
+            } catch (RuntimeException e) {
+                System.err.println("Failed to reprice: " + e.getMessage());
+            }
+        }, 0, minutes, TimeUnit.MINUTES);
+    }
 
+    /**
+     * Runs the commands from a file, or from standard input when the file is "-".
+     * Input and output are buffered, so large scripts run without the console slowing them down.
+     *
+     * @param file The path of the command file, or "-" for standard input.
+     * @param commands The registry to look the commands up in.
+     * @throws IOException If the file cannot be read.
+     */
+    static void runBatch(String file, CommandRegistry commands) throws IOException {
+        BufferedReader in = file.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in), 1 << 16)
+                : Files.newBufferedReader(Path.of(file));
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16));
+        try (in) {
+            int failed = new BatchRunner(commands).run(in, out);
+            if (failed > 0) {
+                System.err.println(failed + " command(s) failed");
+            }
+        }
+    }
 
+    /**
+     * Creates the registry with all the console commands, each one created once and bound to the hotel.
+     *
+     * @param store The store keeping the hotel on disk, or null if it is not kept.
+     * @param importCommand The import command, restricted to a directory when the commands are served remotely.
+     * @return The command registry.
+     */
+    static CommandRegistry createCommands(HotelStore store, ImportCommand importCommand) {
+        CommandRegistry commandFactory = new CommandRegistry(hotel);
+        commandFactory.registerCommand("checkin", new CheckInCommand());
+        commandFactory.registerCommand("checkout", new CheckOutCommand());
+        commandFactory.registerCommand("view", new ViewCommand());
+        commandFactory.registerCommand("list", new ListCommand());
+        commandFactory.registerCommand("reserve", new ReserveCommand());
+        commandFactory.registerCommand("group", new GroupCommand());
+        commandFactory.registerCommand("available", new AvailableCommand());
+        commandFactory.registerCommand("search", new SearchCommand());
+        commandFactory.registerCommand("guest", new GuestCommand());
+        commandFactory.registerCommand("stats", new StatsCommand());
+        commandFactory.registerCommand("metrics", new MetricsCommand());
+        commandFactory.registerCommand("import", importCommand);
+        commandFactory.registerCommand("reprice", new RepriceCommand());
+        commandFactory.registerCommand("save", new SaveCommand(store));
+        commandFactory.registerCommand("exit", new ExitCommand());
+        return commandFactory;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+import java.io.PrintWriter;
+
+public class MetricsCommand extends Command {
+    @Override
+    public void execute() {
+        execute(new String[0], hotel.out);
+    }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        if (args.length != 0) {
+            throw new IllegalArgumentException("Usage: metrics");
+        }
+        HotelMetrics metrics = hotel.metrics;
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("Bookings: ").append(metrics.getBookings())
+                .append(" Failed bookings: ").append(metrics.getFailedBookings())
+                .append(" Checkouts: ").append(metrics.getCheckouts())
+                .append(" Lookup misses: ").append(metrics.getLookupMisses())
+                .append(" Command errors: ").append(metrics.getCommandErrors()).append('\n');
+        for (LatencyHistogram latency : metrics.commandLatencies()) {
+            sb.append(latency.getName())
+                    .append(" count=").append(latency.getCount())
+                    .append(" p50=").append(latency.getP50Nanos() / 1000).append("us")
+                    .append(" p99=").append(latency.getP99Nanos() / 1000).append("us")
+                    .append(" p999=").append(latency.getP999Nanos() / 1000).append("us")
+                    .append(" max=").append(latency.getMaxNanos() / 1000).append("us\n");
+        }
+        out.append(sb);
+        out.flush();
+    }
+}
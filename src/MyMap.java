@@ -1,17 +1,42 @@
 import java.util.*;
-import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public class MyMap<K, V> {
-    // Lists to store keys and values
-    private List<K> keys;
-    private List<V> values;
+    // Marker for entries that have been removed but not yet compacted away
+    private static final Object DELETED = new Object();
+    // Table slot states, any other value is an entry index + 1
+    private static final int EMPTY = 0;
+    private static final int TOMBSTONE = -1;
+    private static final int MIN_CAPACITY = 8;
+
+    // Entries in insertion order, so keys() and values() keep the order of put()
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes;
+    // Open-addressing index (linear probing) pointing into the entry arrays
+    private int[] table;
+    // Number of entry slots used, including removed ones
+    private int used;
+    // Number of live key-value pairs
+    private int size;
+    // Bumped on every structural change so iterations can detect concurrent modification
+    private int modCount;
 
     /**
      * Constructs an empty MyMap instance.
      */
     public MyMap() {
-        this.keys = new ArrayList<>();
-        this.values = new ArrayList<>();
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty MyMap instance sized to hold the given number of entries without resizing.
+     *
+     * @param expectedSize The number of entries the map is expected to hold.
+     */
+    public MyMap(int expectedSize) {
+        allocate(Math.max(MIN_CAPACITY, expectedSize));
     }
 
     /**
@@ -22,15 +47,35 @@ public class MyMap<K, V> {
      * @param value The value to be associated with the key.
      * @return The previous value associated with the key, or null if the key was not already in the map.
      */
+    @SuppressWarnings("unchecked")
     public V put(K key, V value) {
-        int index = keys.indexOf(key); // Find index of key
-        if (index == -1) { // If key doesn't exist, add a new entry
-            keys.add(key);
-            values.add(value);
-            return null;
-        } else { // If key exists, update the value at the corresponding index
-            return values.set(index, value);
+        int hash = hash(key);
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        int firstTombstone = -1;
+        while (table[slot] != EMPTY) {
+            int entry = table[slot] - 1;
+            if (entry < 0) { // Remember the first tombstone so it can be reused
+                if (firstTombstone == -1) firstTombstone = slot;
+            } else if (hashes[entry] == hash && Objects.equals(keys[entry], key)) { // If key exists, update the value
+                V previous = (V) values[entry];
+                values[entry] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
         }
+        if (used == keys.length) { // No room for a new entry, grow or compact and try again
+            rebuild();
+            return put(key, value);
+        }
+        int entry = used++;
+        keys[entry] = key;
+        values[entry] = value;
+        hashes[entry] = hash;
+        table[firstTombstone == -1 ? slot : firstTombstone] = entry + 1;
+        size++;
+        modCount++;
+        return null;
     }
 
     /**
@@ -39,13 +84,10 @@ public class MyMap<K, V> {
      * @param key The key whose associated value is to be returned.
      * @return The value associated with the key, or null if the key is not found.
      */
+    @SuppressWarnings("unchecked")
     public V get(K key) {
-        int index = keys.indexOf(key); // Find index of key
-        if (index == -1) { // If key doesn't exist, return null
-            return null;
-        } else { // If key exists, return the corresponding value
-            return values.get(index);
-        }
+        int slot = find(key);
+        return slot == -1 ? null : (V) values[table[slot] - 1];
     }
 
     /**
@@ -53,8 +95,13 @@ public class MyMap<K, V> {
      *
      * @return A list of all the keys in the map.
      */
+    @SuppressWarnings("unchecked")
     public List<K> keys() {
-        return new ArrayList<>(keys);
+        List<K> result = new ArrayList<>(size);
+        for (int i = 0; i < used; i++) {
+            if (keys[i] != DELETED) result.add((K) keys[i]);
+        }
+        return result;
     }
 
     /**
@@ -62,8 +109,65 @@ public class MyMap<K, V> {
      *
      * @return A list of all the values in the map.
      */
+    @SuppressWarnings("unchecked")
     public List<V> values() {
-        return new ArrayList<>(values);
+        List<V> result = new ArrayList<>(size);
+        for (int i = 0; i < used; i++) {
+            if (keys[i] != DELETED) result.add((V) values[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a read-only view of the keys in the map, in insertion order.
+     * The view is backed by the map, so nothing is copied; its iterators fail fast if the map is modified.
+     *
+     * @return A view of the keys in the map.
+     */
+    public Collection<K> keyView() {
+        return new View<>(true);
+    }
+
+    /**
+     * Returns a read-only view of the values in the map, in insertion order.
+     * The view is backed by the map, so nothing is copied; its iterators fail fast if the map is modified.
+     *
+     * @return A view of the values in the map.
+     */
+    public Collection<V> valueView() {
+        return new View<>(false);
+    }
+
+    /**
+     * Passes every value to the consumer, in insertion order, without copying.
+     *
+     * @param consumer The consumer to receive the values.
+     * @throws ConcurrentModificationException If the map is structurally modified during the iteration.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super V> consumer) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < used; i++) {
+            if (keys[i] == DELETED) continue;
+            consumer.accept((V) values[i]);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Passes every key-value pair to the consumer, in insertion order, without copying.
+     *
+     * @param consumer The consumer to receive the entries.
+     * @throws ConcurrentModificationException If the map is structurally modified during the iteration.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachEntry(BiConsumer<? super K, ? super V> consumer) {
+        int expectedModCount = modCount;
+        for (int i = 0; i < used; i++) {
+            if (keys[i] == DELETED) continue;
+            consumer.accept((K) keys[i], (V) values[i]);
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
     }
 
     /**
@@ -72,14 +176,20 @@ public class MyMap<K, V> {
      * @param key The key whose associated key-value pair is to be removed.
      * @return The value associated with the removed key, or null if the key was not found.
      */
+    @SuppressWarnings("unchecked")
     public V remove(K key) {
-        int index = keys.indexOf(key); // Find index of key
-        if (index == -1) { // If key doesn't exist, return null
+        int slot = find(key);
+        if (slot == -1) { // If key doesn't exist, return null
             return null;
-        } else { // If key exists, remove the entry and return the associated value
-            keys.remove(index);
-            return values.remove(index);
         }
+        int entry = table[slot] - 1;
+        V previous = (V) values[entry];
+        table[slot] = TOMBSTONE;
+        keys[entry] = DELETED;
+        values[entry] = null;
+        size--;
+        modCount++;
+        return previous;
     }
 
     /**
@@ -88,7 +198,7 @@ public class MyMap<K, V> {
      * @return The number of key-value pairs in the map.
      */
     public int size() {
-        return keys.size();
+        return size;
     }
 
     /**
@@ -97,7 +207,7 @@ public class MyMap<K, V> {
      * @return True if the map is empty, false otherwise.
      */
     public boolean isEmpty() {
-        return keys.isEmpty();
+        return size == 0;
     }
 
     /**
@@ -107,7 +217,7 @@ public class MyMap<K, V> {
      * @return True if the key exists in the map, false otherwise.
      */
     public boolean containsKey(K key) {
-        return keys.contains(key);
+        return find(key) != -1;
     }
 
     /**
@@ -117,14 +227,135 @@ public class MyMap<K, V> {
      * @return True if the value exists in the map, false otherwise.
      */
     public boolean containsValue(V value) {
-        return values.contains(value);
+        for (int i = 0; i < used; i++) {
+            if (keys[i] != DELETED && Objects.equals(values[i], value)) return true;
+        }
+        return false;
     }
 
     /**
      * Clears all the key-value pairs in the map.
      */
     public void clear() {
-        keys.clear();
-        values.clear();
+        Arrays.fill(keys, 0, used, null);
+        Arrays.fill(values, 0, used, null);
+        Arrays.fill(table, EMPTY);
+        used = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Finds the table slot holding the given key.
+     *
+     * @param key The key to look up.
+     * @return The slot index, or -1 if the key is not in the map.
+     */
+    private int find(Object key) {
+        int hash = hash(key);
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != EMPTY) {
+            int entry = table[slot] - 1;
+            if (entry >= 0 && hashes[entry] == hash && Objects.equals(keys[entry], key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Compacts out removed entries and grows the storage if the map is more than half full.
+     */
+    private void rebuild() {
+        modCount++;
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        int oldUsed = used;
+        allocate(Math.max(MIN_CAPACITY, size * 2));
+        int mask = table.length - 1;
+        for (int i = 0; i < oldUsed; i++) {
+            if (oldKeys[i] == DELETED) continue;
+            int entry = used++;
+            keys[entry] = oldKeys[i];
+            values[entry] = oldValues[i];
+            hashes[entry] = oldHashes[i];
+            int slot = hashes[entry] & mask;
+            while (table[slot] != EMPTY) slot = (slot + 1) & mask;
+            table[slot] = entry + 1;
+        }
+    }
+
+    /**
+     * Allocates empty storage for the given number of entries.
+     * The table is kept at least twice as large as the entry arrays so probe chains stay short.
+     *
+     * @param capacity The number of entries to make room for.
+     */
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        table = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+        used = 0;
+    }
+
+    /**
+     * Read-only view over the keys or the values of the map.
+     *
+     * @param <E> The type of the elements.
+     */
+    private class View<E> extends AbstractCollection<E> {
+        private final boolean ofKeys;
+
+        View(boolean ofKeys) {
+            this.ofKeys = ofKeys;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<>() {
+                private final int expectedModCount = modCount;
+                private int next = skipDeleted(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next < used;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public E next() {
+                    if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                    if (next >= used) throw new NoSuchElementException();
+                    E element = (E) (ofKeys ? keys[next] : values[next]);
+                    next = skipDeleted(next + 1);
+                    return element;
+                }
+            };
+        }
+
+        private int skipDeleted(int index) {
+            while (index < used && keys[index] == DELETED) index++;
+            return index;
+        }
+    }
+
+    /**
+     * Spreads the key's hash code so that keys differing only in high bits land in different slots.
+     *
+     * @param key The key to hash.
+     * @return The spread hash.
+     */
+    private static int hash(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        return h ^ (h >>> 16);
     }
-}
\ No newline at end of file
+}
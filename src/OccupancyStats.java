@@ -0,0 +1,127 @@
+import java.time.LocalDate;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live occupancy and revenue figures for a hotel or one of its floors.
+ * Rooms update the counters as they are rented, joined by extra guests and checked out,
+ * so reading them never looks at the rooms. The counters are striped, so desks booking
+ * at the same time do not contend on a single value.
+ *
+ * Revenue accrued by the current stays is kept as two sums over the occupied rooms,
+ * the nightly rate and the rate times the check-in day, so the amount for any day is
+ * day * rate - sum without walking the stays. Each stay is counted at the rate in force when it began,
+ * and taken out again at that same rate, so later repricing cannot leave a stay's share behind.
+ */
+public class OccupancyStats {
+    private final LongAdder rooms = new LongAdder();
+    private final LongAdder occupiedRooms = new LongAdder();
+    private final LongAdder guestsInHouse = new LongAdder();
+    // Sum of the stay rates of the occupied rooms
+    private final LongAdder nightlyRate = new LongAdder();
+    // Sum of stay rate * check-in epoch day of the occupied rooms
+    private final LongAdder rateDaySum = new LongAdder();
+    // Charges of all the stays checked out so far
+    private final LongAdder billedRevenue = new LongAdder();
+
+    void roomAdded() {
+        rooms.increment();
+    }
+
+    void roomRented(int rate, LocalDate checkInDate) {
+        occupiedRooms.increment();
+        guestsInHouse.increment();
+        nightlyRate.add(rate);
+        rateDaySum.add(rate * checkInDate.toEpochDay());
+    }
+
+    void guestAdded() {
+        guestsInHouse.increment();
+    }
+
+    void checkInDateChanged(int rate, LocalDate oldDate, LocalDate newDate) {
+        rateDaySum.add(rate * (newDate.toEpochDay() - oldDate.toEpochDay()));
+    }
+
+    void roomVacated(int rate, LocalDate checkInDate, int guests, long charge) {
+        occupiedRooms.decrement();
+        guestsInHouse.add(-guests);
+        nightlyRate.add(-rate);
+        rateDaySum.add(-rate * checkInDate.toEpochDay());
+        billedRevenue.add(charge);
+    }
+
+    /**
+     * Returns the number of rooms.
+     *
+     * @return The number of rooms.
+     */
+    public long getRooms() {
+        return rooms.sum();
+    }
+
+    /**
+     * Returns the number of occupied rooms.
+     *
+     * @return The number of occupied rooms.
+     */
+    public long getOccupiedRooms() {
+        return occupiedRooms.sum();
+    }
+
+    /**
+     * Returns the number of guests staying in the rooms, extra guests included.
+     *
+     * @return The number of guests in house.
+     */
+    public long getGuestsInHouse() {
+        return guestsInHouse.sum();
+    }
+
+    /**
+     * Returns what the occupied rooms earn per night.
+     *
+     * @return The sum of the stay rates of the occupied rooms.
+     */
+    public long getNightlyRate() {
+        return nightlyRate.sum();
+    }
+
+    /**
+     * Returns what the current stays would be charged if they all checked out on the given day.
+     *
+     * @param date The day to accrue the revenue up to.
+     * @return The accrued revenue of the current stays.
+     */
+    public long getAccruedRevenue(LocalDate date) {
+        return date.toEpochDay() * nightlyRate.sum() - rateDaySum.sum();
+    }
+
+    /**
+     * Returns the charges of all the stays checked out so far.
+     *
+     * @return The billed revenue.
+     */
+    public long getBilledRevenue() {
+        return billedRevenue.sum();
+    }
+
+    /**
+     * Appends the figures on one line, with the revenue accrued up to the given day.
+     *
+     * @param sb The buffer to append to.
+     * @param date The day to accrue the revenue up to.
+     * @return The buffer.
+     */
+    StringBuilder appendTo(StringBuilder sb, LocalDate date) {
+        long rooms = getRooms();
+        long occupied = getOccupiedRooms();
+        sb.append("Rooms: ").append(rooms)
+                .append(" Occupied: ").append(occupied)
+                .append(" Free: ").append(rooms - occupied)
+                .append(" Guests: ").append(getGuestsInHouse())
+                .append(" Nightly rate: ").append(getNightlyRate())
+                .append(" Accrued: ").append(getAccruedRevenue(date))
+                .append(" Billed: ").append(getBilledRevenue());
+        return sb;
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Nightly rates of all rooms of a hotel for one day, computed together by the pricing engine.
+ * A table never changes once built; the hotel publishes a new one to change the rates.
+ * Every rate is within half and twice the room's base price, which the price index relies on.
+ */
+public class PriceTable {
+    private final long epochDay;
+    private final int[] rates;
+
+    /**
+     * Constructs a table.
+     *
+     * @param epochDay The day the rates were computed for.
+     * @param rates The rate of every room by ordinal, no longer used by the caller.
+     */
+    PriceTable(long epochDay, int[] rates) {
+        this.epochDay = epochDay;
+        this.rates = rates;
+    }
+
+    /**
+     * Returns the day the rates were computed for.
+     *
+     * @return The epoch day.
+     */
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    /**
+     * Returns the number of rooms with a rate in the table.
+     *
+     * @return The number of rooms.
+     */
+    public int size() {
+        return rates.length;
+    }
+
+    /**
+     * Returns the rate of a room.
+     *
+     * @param ordinal The ordinal of the room.
+     * @param basePrice The price to use if the room was added after the table was computed.
+     * @return The nightly rate of the room.
+     */
+    int rate(int ordinal, int basePrice) {
+        return ordinal < rates.length ? rates[ordinal] : basePrice;
+    }
+}
@@ -0,0 +1,155 @@
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * Computes nightly rates that follow demand, for all rooms of a hotel at once.
+ * The rate of a room is its base price scaled by the occupancy of its floor and of all rooms of its capacity,
+ * by the day of the week, and by how far ahead the day is. The result is kept within half and twice the base price.
+ *
+ * A room counts as taken on a day if it is reserved for it, and for today also if a guest is in it: whether
+ * today's guests stay on is not known, so the days ahead only count their reservations.
+ *
+ * A run counts the occupancy per floor and per capacity in one pass over the room store, then computes the rates
+ * in parallel over blocks of rooms, which hold whole floors for generated hotels. It only reads the store and the
+ * vacancy and availability indexes, so bookings go on while it runs. The new table replaces the one of the same
+ * day in the hotel's rate calendar in one step; a table of today also becomes the rates the reports show.
+ */
+public class PricingEngine {
+    // Rooms per parallel task
+    private static final int BLOCK = 4096;
+    // Scale of the rate at no and at full occupancy
+    private static final double EMPTY_FACTOR = 0.8;
+    private static final double FULL_FACTOR = 1.4;
+    // Weight of the floor's occupancy against that of the room's capacity
+    private static final double FLOOR_WEIGHT = 0.5;
+    // Scale of the rate on Friday and Saturday nights
+    private static final double WEEKEND_FACTOR = 1.15;
+    // Discounts for days at least a week and at least a month ahead
+    private static final double WEEK_AHEAD_FACTOR = 0.95;
+    private static final double MONTH_AHEAD_FACTOR = 0.9;
+
+    private final Hotel hotel;
+
+    /**
+     * Constructs an engine for a hotel.
+     *
+     * @param hotel The hotel to price.
+     */
+    public PricingEngine(Hotel hotel) {
+        this.hotel = hotel;
+    }
+
+    /**
+     * Computes the rates of all rooms for the given day and publishes them to the hotel.
+     *
+     * @param date The day to price.
+     * @return The published table.
+     */
+    public PriceTable reprice(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        PriceTable table = compute(date, today);
+        hotel.rateCalendar.put(table);
+        if (date.equals(today)) {
+            hotel.priceTable = table;
+        }
+        hotel.rateCalendar.prune(firstNightCharged(today.toEpochDay()));
+        return table;
+    }
+
+    /**
+     * Finds the first night a guest in house may still be charged for, so the rates of the nights before it
+     * can be dropped.
+     *
+     * @param today Today, as an epoch day.
+     * @return The earliest check-in day of an occupied room, or today if none began earlier.
+     */
+    private long firstNightCharged(long today) {
+        RoomStore store = hotel.store;
+        // Only rooms added before the vacancies are read have a bit in them
+        int size = store.size();
+        BitSet free = hotel.vacancies.freeRooms();
+        long first = today;
+        for (int ordinal = free.nextClearBit(0); ordinal < size; ordinal = free.nextClearBit(ordinal + 1)) {
+            first = Math.min(first, store.checkInDay(ordinal));
+        }
+        return first;
+    }
+
+    /**
+     * Computes the rates of all rooms for the given day.
+     *
+     * @param date The day to price.
+     * @param today The day the rates are computed on, for the lead time.
+     * @return The new table.
+     */
+    PriceTable compute(LocalDate date, LocalDate today) {
+        RoomStore store = hotel.store;
+        int size = store.size();
+        long day = date.toEpochDay();
+        BitSet free = hotel.availability.free(size, day, day + 1);
+        if (!date.isAfter(today)) {
+            free.and(hotel.vacancies.freeRooms());
+        }
+
+        // Rooms and occupied rooms per floor and per capacity
+        int maxFloor = 0;
+        int maxCapacity = 0;
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            maxFloor = Math.max(maxFloor, store.roomId(ordinal) / 100);
+            maxCapacity = Math.max(maxCapacity, store.capacity(ordinal));
+        }
+        int[] floorRooms = new int[maxFloor + 1];
+        int[] floorOccupied = new int[maxFloor + 1];
+        int[] capacityRooms = new int[maxCapacity + 1];
+        int[] capacityOccupied = new int[maxCapacity + 1];
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            int floor = store.roomId(ordinal) / 100;
+            int capacity = store.capacity(ordinal);
+            floorRooms[floor]++;
+            capacityRooms[capacity]++;
+            if (!free.get(ordinal)) {
+                floorOccupied[floor]++;
+                capacityOccupied[capacity]++;
+            }
+        }
+        double[] floorOccupancy = ratios(floorOccupied, floorRooms);
+        double[] capacityOccupancy = ratios(capacityOccupied, capacityRooms);
+
+        double dayFactor = dayFactor(date, today);
+        int[] rates = new int[size];
+        IntStream.range(0, (size + BLOCK - 1) / BLOCK).parallel().forEach(block -> {
+            int end = Math.min(size, (block + 1) * BLOCK);
+            for (int ordinal = block * BLOCK; ordinal < end; ordinal++) {
+                double occupancy = FLOOR_WEIGHT * floorOccupancy[store.roomId(ordinal) / 100]
+                        + (1 - FLOOR_WEIGHT) * capacityOccupancy[store.capacity(ordinal)];
+                int base = store.price(ordinal);
+                long rate = Math.round(base * dayFactor * (EMPTY_FACTOR + (FULL_FACTOR - EMPTY_FACTOR) * occupancy));
+                rates[ordinal] = (int) Math.max(base / 2, Math.min(2L * base, rate));
+            }
+        });
+        return new PriceTable(date.toEpochDay(), rates);
+    }
+
+    private static double[] ratios(int[] parts, int[] totals) {
+        double[] ratios = new double[totals.length];
+        for (int i = 0; i < totals.length; i++) {
+            ratios[i] = totals[i] == 0 ? 0 : (double) parts[i] / totals[i];
+        }
+        return ratios;
+    }
+
+    private static double dayFactor(LocalDate date, LocalDate today) {
+        double factor = date.getDayOfWeek() == DayOfWeek.FRIDAY || date.getDayOfWeek() == DayOfWeek.SATURDAY
+                ? WEEKEND_FACTOR : 1;
+        long leadDays = ChronoUnit.DAYS.between(today, date);
+        if (leadDays >= 30) {
+            factor *= MONTH_AHEAD_FACTOR;
+        } else if (leadDays >= 7) {
+            factor *= WEEK_AHEAD_FACTOR;
+        }
+        return factor;
+    }
+}
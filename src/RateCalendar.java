@@ -0,0 +1,68 @@
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The price tables of a hotel by the day they were computed for, so every night of a stay is charged at
+ * the rate of that night. A night without a table is charged at the room's base price.
+ * Tables are published by the pricing engine and read without locking. Tables of nights no guest in house
+ * can still be charged for are dropped by the engine, see prune.
+ */
+public class RateCalendar {
+    private final ConcurrentSkipListMap<Long, PriceTable> byDay = new ConcurrentSkipListMap<>();
+
+    /**
+     * Publishes a table, replacing any table of the same day.
+     *
+     * @param table The table.
+     */
+    void put(PriceTable table) {
+        byDay.put(table.getEpochDay(), table);
+    }
+
+    /**
+     * Returns the table of a day.
+     *
+     * @param epochDay The day.
+     * @return The table, or null if the day has not been priced.
+     */
+    PriceTable get(long epochDay) {
+        return byDay.get(epochDay);
+    }
+
+    /**
+     * Returns the charge for the nights of a stay: each night at the rate of its table, or at the base
+     * price if it has none.
+     *
+     * @param ordinal The ordinal of the room.
+     * @param basePrice The base price of the room.
+     * @param fromDay The first night, as an epoch day.
+     * @param toDay The day of departure, as an epoch day.
+     * @return The charge.
+     */
+    long charge(int ordinal, int basePrice, long fromDay, long toDay) {
+        long charge = (toDay - fromDay) * basePrice;
+        if (fromDay < toDay) {
+            for (PriceTable table : byDay.subMap(fromDay, toDay).values()) {
+                charge += table.rate(ordinal, basePrice) - basePrice;
+            }
+        }
+        return charge;
+    }
+
+    /**
+     * Drops the tables of the days before the given one.
+     *
+     * @param epochDay The first day to keep.
+     */
+    void prune(long epochDay) {
+        byDay.headMap(epochDay).clear();
+    }
+
+    /**
+     * Returns the number of days priced.
+     *
+     * @return The number of tables.
+     */
+    int size() {
+        return byDay.size();
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Rendered report text, kept for as long as what it was rendered from stays the same.
+ * Every entry is stored with the version of its source and the rate it shows; a lookup with another version
+ * or rate misses, so changed text is never served and needs no invalidation. Keying on the rate rather than on
+ * the price table means a new table only re-renders the rooms whose rate it changes.
+ * The cache has a fixed number of slots and a key always goes to the same slot, replacing what another key
+ * left there, so it never holds more than its capacity. Keys below the capacity, such as the ordinals of
+ * a hotel that fits, never push each other out.
+ * Slots are read and written without locking: entries never change once stored, and a thread that does
+ * not see the latest entry of a slot only renders again.
+ */
+public class RenderCache {
+    private final Entry[] slots;
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param capacity The number of slots, rounded up to a power of two.
+     */
+    public RenderCache(int capacity) {
+        slots = new Entry[Integer.highestOneBit(Math.max(1, capacity - 1)) << 1];
+    }
+
+    /**
+     * Returns the most entries the cache keeps.
+     *
+     * @return The number of slots.
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Returns the text rendered for a key, if its source has not changed since.
+     *
+     * @param key The key, such as the ordinal of a room.
+     * @param version The current version of the source.
+     * @param rate The rate the text shows now, or 0 if it shows none.
+     * @return The text, or null if it is not cached for this version and rate.
+     */
+    String get(int key, int version, int rate) {
+        Entry entry = slots[key & (slots.length - 1)];
+        return entry != null && entry.key == key && entry.version == version && entry.rate == rate ? entry.text : null;
+    }
+
+    /**
+     * Keeps the text rendered for a key.
+     *
+     * @param key The key, such as the ordinal of a room.
+     * @param version The version of the source the text was rendered from.
+     * @param rate The rate the text shows, or 0 if it shows none.
+     * @param text The text.
+     */
+    void put(int key, int version, int rate, String text) {
+        slots[key & (slots.length - 1)] = new Entry(key, version, rate, text);
+    }
+
+    private static final class Entry {
+        private final int key;
+        private final int version;
+        private final int rate;
+        private final String text;
+
+        Entry(int key, int version, int rate, String text) {
+            this.key = key;
+            this.version = version;
+            this.rate = rate;
+            this.text = text;
+        }
+    }
+}
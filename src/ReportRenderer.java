@@ -0,0 +1,168 @@
+import java.io.PrintWriter;
+
+/**
+ * Formats room reports into a reusable buffer and writes them out in large chunks.
+ * Numbers are appended straight into the buffer, so rendering a room does not build temporary strings.
+ * Once the buffer holds a chunk it is written to the output, so reports of any size use bounded memory.
+ * The buffers start small and only grow as far as the report needs, so a short report, such as a listing
+ * sent to one of many connections, does not pay for a whole chunk.
+ */
+public class ReportRenderer {
+    // Default number of characters collected before they are written out
+    static final int DEFAULT_CHUNK_SIZE = 1 << 15;
+    // Characters the buffer starts with
+    private static final int INITIAL_CAPACITY = 256;
+    // Room for the room that takes the buffer past a chunk
+    private static final int SLACK = 256;
+
+    private final PrintWriter out;
+    private final int chunkSize;
+    private final StringBuilder buffer = new StringBuilder(INITIAL_CAPACITY);
+    // Copy of the buffer handed to the output, sized on the first flush and grown up to a chunk
+    private char[] chunk;
+
+    /**
+     * Constructs a renderer writing to the given output in chunks of the default size.
+     *
+     * @param out The writer to write the report to.
+     */
+    public ReportRenderer(PrintWriter out) {
+        this(out, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a renderer writing to the given output.
+     * Smaller chunks make the report appear sooner, larger ones mean fewer writes.
+     *
+     * @param out The writer to write the report to.
+     * @param chunkSize The number of characters collected before they are written out.
+     */
+    public ReportRenderer(PrintWriter out, int chunkSize) {
+        this.out = out;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Renders the details of a room.
+     *
+     * @param room The room to render.
+     * @return This renderer.
+     */
+    public ReportRenderer room(Room room) {
+        room.appendTo(buffer);
+        return flushIfFull();
+    }
+
+    /**
+     * Adds text rendered before, such as the cached details of a room.
+     *
+     * @param text The text.
+     * @return This renderer.
+     */
+    public ReportRenderer text(String text) {
+        buffer.append(text);
+        return flushIfFull();
+    }
+
+    /**
+     * Renders the price line of a room.
+     *
+     * @param room The room to render.
+     * @return This renderer.
+     */
+    public ReportRenderer price(Room room) {
+        room.appendPriceTo(buffer);
+        return flushIfFull();
+    }
+
+    /**
+     * Renders the price line of a room with the rate of a given night.
+     *
+     * @param room The room to render.
+     * @param rates The rates of the night, or null for the base price.
+     * @return This renderer.
+     */
+    public ReportRenderer price(Room room, PriceTable rates) {
+        room.appendPriceTo(buffer, rates);
+        return flushIfFull();
+    }
+
+    /**
+     * Renders the price lines of all rooms of a store, in the order the rooms were added.
+     * The lines are rendered straight from the store's columns, a block of rooms at a time.
+     *
+     * @param store The store holding the rooms.
+     * @param rates The current rates, or null for the base prices.
+     * @return This renderer.
+     */
+    public ReportRenderer prices(RoomStore store, PriceTable rates) {
+        int size = store.size();
+        for (int from = 0; from < size; from += 256) {
+            store.appendPrices(buffer, from, Math.min(from + 256, size), rates);
+            flushIfFull();
+        }
+        return this;
+    }
+
+    /**
+     * Renders one row of the floor map with the IDs of all rooms on the floor.
+     *
+     * @param floor The rooms on the floor.
+     * @return This renderer.
+     */
+    public ReportRenderer floorRow(IntObjectMap<Room> floor) {
+        appendFloorRow(buffer, floor);
+        return flushIfFull();
+    }
+
+    /**
+     * Appends one row of the floor map with the IDs of all rooms on the floor.
+     *
+     * @param sb The buffer to append to.
+     * @param floor The rooms on the floor.
+     * @return The buffer.
+     */
+    static StringBuilder appendFloorRow(StringBuilder sb, IntObjectMap<Room> floor) {
+        floor.forEachValue(room -> appendRoomId(sb, room.getRoomId()).append(" |"));
+        return sb.append('\n');
+    }
+
+    /**
+     * Writes everything rendered so far to the output.
+     */
+    public void flush() {
+        // The buffer may have run past a chunk, write it a chunk at a time rather than allocating a larger one
+        int length = buffer.length();
+        if (length > 0 && (chunk == null || chunk.length < Math.min(length, chunkSize + SLACK))) {
+            // A full chunk gets the whole slack at once, flushes of full chunks differ in length by a room
+            chunk = new char[length >= chunkSize ? chunkSize + SLACK : length];
+        }
+        for (int from = 0; from < length; from += chunk.length) {
+            int count = Math.min(chunk.length, length - from);
+            buffer.getChars(from, from + count, chunk, 0);
+            out.write(chunk, 0, count);
+        }
+        buffer.setLength(0);
+        out.flush();
+    }
+
+    private ReportRenderer flushIfFull() {
+        if (buffer.length() >= chunkSize) {
+            flush();
+        }
+        return this;
+    }
+
+    /**
+     * Appends a room ID padded with zeros to at least three digits.
+     *
+     * @param sb The buffer to append to.
+     * @param roomId The room ID.
+     * @return The buffer.
+     */
+    static StringBuilder appendRoomId(StringBuilder sb, int roomId) {
+        if (roomId >= 0 && roomId < 100) sb.append('0');
+        if (roomId >= 0 && roomId < 10) sb.append('0');
+        return sb.append(roomId);
+    }
+}
@@ -0,0 +1,21 @@
+import java.io.PrintWriter;
+import java.time.LocalDate;
+
+public class RepriceCommand extends Command {
+    @Override
+    public void execute() {
+        execute(new String[0], hotel.out);
+    }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        if (args.length > 1) {
+            throw new IllegalArgumentException("Usage: reprice [date]");
+        }
+        LocalDate date = args.length == 0 ? LocalDate.now() : parseDate(args[0]);
+        long start = System.nanoTime();
+        PriceTable table = new PricingEngine(hotel).reprice(date);
+        out.println("Repriced " + table.size() + " rooms for " + date + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        out.flush();
+    }
+}
@@ -0,0 +1,62 @@
+import java.time.LocalDate;
+
+/**
+ * A booking of a room for a guest over a range of nights.
+ * The range runs from the arrival day up to, but not including, the departure day.
+ */
+public class Reservation {
+    private final Guest guest;
+    private final long fromDay;
+    private final long toDay;
+
+    /**
+     * Constructs a reservation.
+     *
+     * @param guest The guest the room is reserved for.
+     * @param from The arrival day.
+     * @param to The departure day, after the arrival day.
+     * @throws IllegalArgumentException If the departure day is not after the arrival day.
+     */
+    public Reservation(Guest guest, LocalDate from, LocalDate to) {
+        this(guest, from.toEpochDay(), to.toEpochDay());
+    }
+
+    Reservation(Guest guest, long fromDay, long toDay) {
+        if (toDay <= fromDay) {
+            throw new IllegalArgumentException("Departure must be after arrival.");
+        }
+        this.guest = guest;
+        this.fromDay = fromDay;
+        this.toDay = toDay;
+    }
+
+    public Guest getGuest() {
+        return guest;
+    }
+
+    public LocalDate getFrom() {
+        return LocalDate.ofEpochDay(fromDay);
+    }
+
+    public LocalDate getTo() {
+        return LocalDate.ofEpochDay(toDay);
+    }
+
+    long getFromDay() {
+        return fromDay;
+    }
+
+    long getToDay() {
+        return toDay;
+    }
+
+    /**
+     * Checks if the reservation covers the night starting on the given day.
+     *
+     * @param day The epoch day.
+     * @return True if the day is within the reservation.
+     */
+    boolean covers(long day) {
+        return fromDay <= day && day < toDay;
+    }
+}
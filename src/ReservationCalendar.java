@@ -0,0 +1,57 @@
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The reservations of one room, sorted by arrival day.
+ * Reservations of a room never overlap, so the only one that can clash with a new range is
+ * the last one arriving before the range ends, which makes every check a single tree lookup.
+ * Not thread-safe; the room uses it under its floor lock.
+ */
+public class ReservationCalendar {
+    private final TreeMap<Long, Reservation> byArrival = new TreeMap<>();
+
+    /**
+     * Checks if no reservation overlaps the given range of days.
+     *
+     * @param fromDay The first day, as an epoch day.
+     * @param toDay The day after the last day, as an epoch day.
+     * @return True if the room is free for the whole range.
+     */
+    boolean isFree(long fromDay, long toDay) {
+        Map.Entry<Long, Reservation> last = byArrival.lowerEntry(toDay);
+        return last == null || last.getValue().getToDay() <= fromDay;
+    }
+
+    /**
+     * Returns the reservation covering the given day.
+     *
+     * @param day The epoch day.
+     * @return The reservation, or null if the room is not reserved on that day.
+     */
+    Reservation at(long day) {
+        Map.Entry<Long, Reservation> entry = byArrival.floorEntry(day);
+        return entry != null && entry.getValue().covers(day) ? entry.getValue() : null;
+    }
+
+    /**
+     * Adds a reservation.
+     *
+     * @param reservation The reservation to add.
+     * @throws IllegalArgumentException If it overlaps an existing reservation.
+     */
+    void add(Reservation reservation) {
+        if (!isFree(reservation.getFromDay(), reservation.getToDay())) {
+            throw new IllegalArgumentException("Room is already reserved for those dates.");
+        }
+        byArrival.put(reservation.getFromDay(), reservation);
+    }
+
+    void remove(Reservation reservation) {
+        byArrival.remove(reservation.getFromDay(), reservation);
+    }
+
+    Collection<Reservation> all() {
+        return byArrival.values();
+    }
+}
@@ -0,0 +1,17 @@
+import java.io.PrintWriter;
+
+public class ReserveCommand extends Command {
+    @Override
+    public void execute() {
+        execute(new String[0], hotel.out);
+    }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        if (args.length != 4) {
+            throw new IllegalArgumentException("Usage: reserve <room> <from> <to> <guest>");
+        }
+        Reservation reservation = hotel.reserve(args[3], Hotel.parseRoomId(args[0]), parseDate(args[1]), parseDate(args[2]));
+        out.println("Reserved room " + args[0] + " for " + args[3] + " from " + reservation.getFrom() + " to " + reservation.getTo());
+    }
+}
@@ -1,92 +1,366 @@
 import java.time.LocalDate;
 import java.time.*;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.locks.Lock;
 
 public class Room {
-    static List<Integer> roomIds = new ArrayList<>();
-    private List<Guest> extraGuests = new ArrayList<>();
-    private int roomId;
-    private int capacity;
-    private int price;
-    private boolean occupied;
-    private Guest guest;
-    private LocalDate checkInDate;
+    private static final Guest[] NO_GUESTS = new Guest[0];
+    // Replaced on every change so readers can iterate without locking
+    private volatile Guest[] extraGuests = NO_GUESTS;
+    // Null while the room is free; written after the check-in day so readers see both
+    private volatile Guest guest;
+    // The row holding the id, capacity, price and check-in day of the room, and its ordinal there
+    private final RoomStore store;
+    private final int ordinal;
+    // The hotel the room belongs to, whose floor lock guards the room
+    private final Hotel hotel;
+    // Created on the first reservation, guarded by the room's lock
+    private ReservationCalendar calendar;
 
-
-
-    public Room(int roomId, int capacity, int price) {
-        if (roomIds.contains(roomId)) {
-            throw new IllegalArgumentException("Room id already exists");
-        }
-        this.roomId = roomId;
-        this.capacity = capacity;
-        this.price = price;
+    /**
+     * Constructs a room of a hotel for a row of the hotel's store; only the store creates rooms, see RoomStore.add.
+     *
+     * @param hotel The hotel the room belongs to.
+     * @param ordinal The ordinal of the room's row.
+     */
+    Room(Hotel hotel, int ordinal) {
+        this.hotel = hotel;
+        this.store = hotel.store;
+        this.ordinal = ordinal;
     }
 
     public void rent(Guest guest) {
-        if(occupied) {
+        if (!tryRent(guest)) {
             throw new IllegalArgumentException("Room is occupied");
         }
-        this.guest = guest;
-        this.guest.setRoom(this);
-        this.checkInDate = LocalDate.now();
-        this.occupied = true;
+    }
+
+    /**
+     * Rents the room to the guest if it is free, as one atomic step.
+     * A room reserved for today can only be rented by the guest it is reserved for.
+     *
+     * @param guest The guest renting the room.
+     * @return True if the room was rented, false if it was already occupied or reserved for someone else.
+     */
+    public boolean tryRent(Guest guest) {
+        return tryRent(guest, LocalDate.now());
+    }
+
+    /**
+     * Rents the room to the guest from the given day if it is free on that day.
+     *
+     * @param guest The guest renting the room.
+     * @param checkInDate The day of the check-in.
+     * @return True if the room was rented, false if it was already occupied or reserved for someone else.
+     */
+    boolean tryRent(Guest guest, LocalDate checkInDate) {
+        Lock lock = lock();
+        lock.lock();
+        try {
+            if (this.guest != null) {
+                return false;
+            }
+            Reservation reservation = calendar == null ? null : calendar.at(checkInDate.toEpochDay());
+            if (reservation != null && !isFor(reservation, guest)) {
+                return false;
+            }
+            store.beginChange(ordinal);
+            try {
+                store.setCheckInDay(ordinal, checkInDate.toEpochDay());
+                store.setStayRate(ordinal, getRate());
+                guest.addRoom(this);
+                this.guest = guest;
+            } finally {
+                store.endChange(ordinal);
+            }
+            hotel.roomRented(this);
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public long checkOut(){
-        guest.setRoom(null);
-        guest = null;
-        for (Guest g : extraGuests) {
-            g.setRoom(null);
+        return checkOut(LocalDate.now());
+    }
+
+    /**
+     * Checks the guests out on the given day.
+     * The reservation of the departing guest is released, so the rest of it can be booked again.
+     * Each night is charged at the hotel's rate for that night, or at the base price if it was not priced.
+     *
+     * @param checkOutDate The day of the check-out.
+     * @return The charge for the stay.
+     */
+    long checkOut(LocalDate checkOutDate) {
+        Lock lock = lock();
+        lock.lock();
+        try {
+            Guest mainGuest = guest;
+            if (mainGuest == null) {
+                throw new IllegalArgumentException("Room is not occupied");
+            }
+            Reservation stay = calendar == null ? null : calendar.at(checkOutDate.toEpochDay());
+            if (stay != null && isFor(stay, mainGuest)) {
+                calendar.remove(stay);
+                hotel.reservationReleased(this, stay);
+            }
+            LocalDate checkInDate = getCheckInDate();
+            long charge = hotel.rateCalendar.charge(ordinal, getPrice(), checkInDate.toEpochDay(), checkOutDate.toEpochDay());
+            int departing = 1 + extraGuests.length;
+            store.beginChange(ordinal);
+            try {
+                mainGuest.removeRoom(this);
+                for (Guest g : extraGuests) {
+                    g.removeRoom(this);
+                }
+                extraGuests = NO_GUESTS;
+                guest = null;
+            } finally {
+                store.endChange(ordinal);
+            }
+            hotel.roomVacated(this, mainGuest, checkInDate, checkOutDate, departing, charge);
+            return charge;
+        } finally {
+            lock.unlock();
         }
-        extraGuests.clear();
-        this.occupied = false;
-        return ChronoUnit.DAYS.between(checkInDate, LocalDate.now()) * this.price;
+    }
+
+    /**
+     * Reserves the room, as one atomic step with the check for clashing reservations.
+     * Days including today cannot be reserved while another guest occupies the room.
+     *
+     * @param reservation The reservation.
+     * @throws IllegalArgumentException If the room is occupied or already reserved on one of the days.
+     */
+    public void reserve(Reservation reservation) {
+        Lock lock = lock();
+        lock.lock();
+        try {
+            Guest guest = this.guest;
+            if (guest != null && reservation.covers(LocalDate.now().toEpochDay()) && !isFor(reservation, guest)) {
+                throw new IllegalArgumentException("Room is occupied.");
+            }
+            addReservation(reservation);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a reservation read back from a snapshot or journal, without checking who occupies the room.
+     *
+     * @param reservation The reservation.
+     * @throws IllegalArgumentException If the room is already reserved on one of the days.
+     */
+    void addReservation(Reservation reservation) {
+        Lock lock = lock();
+        lock.lock();
+        try {
+            if (calendar == null) {
+                calendar = new ReservationCalendar();
+            }
+            calendar.add(reservation);
+            hotel.roomReserved(this, reservation);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the reservations of the room, sorted by arrival.
+     * Only call this while no reservation can change.
+     *
+     * @return The reservations.
+     */
+    Collection<Reservation> getReservations() {
+        return calendar == null ? List.of() : calendar.all();
+    }
+
+    /**
+     * Tells whether the room is free and not reserved on the given day.
+     * Only reliable while the room's lock is held.
+     *
+     * @param epochDay The day.
+     * @return True if the room can be rented to anyone on that day.
+     */
+    boolean isFreeOn(long epochDay) {
+        return guest == null && (calendar == null || calendar.at(epochDay) == null);
+    }
+
+    private static boolean isFor(Reservation reservation, Guest guest) {
+        return reservation.getGuest().getName().equals(guest.getName());
     }
 
     public boolean isOccupied() {
-        return occupied;
+        return guest != null;
     }
 
     public int getRoomId() {
-        return roomId;
+        return store.roomId(ordinal);
+    }
+
+    public int getFloor() {
+        return getRoomId() / 100;
     }
 
     public int getCapacity() {
-        return capacity;
+        return store.capacity(ordinal);
+    }
+
+    int getPrice() {
+        return store.price(ordinal);
+    }
+
+    /**
+     * Returns the nightly rate of the room today: the hotel's current rate for it, or its base price.
+     *
+     * @return The nightly rate.
+     */
+    int getRate() {
+        PriceTable rates = hotel.priceTable;
+        return rates == null ? getPrice() : rates.rate(ordinal, getPrice());
+    }
+
+    /**
+     * Returns the nightly rate that was in force when the current or last stay began.
+     * The occupancy figures count a stay at this rate from check-in to check-out.
+     *
+     * @return The nightly rate of the stay.
+     */
+    int getStayRate() {
+        return store.stayRate(ordinal);
+    }
+
+    Guest getGuest() {
+        return guest;
+    }
+
+    Guest[] getExtraGuests() {
+        return extraGuests;
+    }
+
+    LocalDate getCheckInDate() {
+        return guest == null ? null : LocalDate.ofEpochDay(store.checkInDay(ordinal));
+    }
+
+    int getOrdinal() {
+        return ordinal;
     }
 
     public void setCheckInDate(LocalDate checkInDate) {
-        this.checkInDate = checkInDate;
-    }
-
-    void print(){
-        System.out.println();
-        String id = roomId > 100? roomId + "" : "0" + roomId;
-        id = roomId < 10? "0" + id: id;
-        System.out.print(   "RoomID: " + id + "\n" +
-                "Price: " + price + "\n" +
-                "Occupied: " + occupied + "\n");
-        if (occupied && extraGuests.isEmpty()) System.out.println("Guest : " + guest.getName());
-        else if (occupied){
-            System.out.print("Guests : " + guest.getName());
+        Lock lock = lock();
+        lock.lock();
+        try {
+            LocalDate oldDate = getCheckInDate();
+            store.beginChange(ordinal);
+            try {
+                store.setCheckInDay(ordinal, checkInDate.toEpochDay());
+            } finally {
+                store.endChange(ordinal);
+            }
+            hotel.checkInDateChanged(this, oldDate);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the details of the room as rendered by appendTo, re-rendered only if the room or its rate
+     * changed since the hotel last rendered it.
+     *
+     * @return The details of the room.
+     */
+    String render() {
+        RenderCache cache = hotel.roomViews;
+        int version = store.version(ordinal);
+        int rate = getRate();
+        String text = cache.get(ordinal, version, rate);
+        if (text == null) {
+            StringBuilder sb = new StringBuilder(64);
+            appendTo(sb, rate);
+            text = sb.toString();
+            // A change under way or made while rendering may be only half in the text, so keep it only if there was none
+            if (store.isVersion(ordinal, version)) {
+                cache.put(ordinal, version, rate, text);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Appends the details of the room: id, price, occupancy and guests.
+     *
+     * @param sb The buffer to append to.
+     */
+    void appendTo(StringBuilder sb) {
+        appendTo(sb, getRate());
+    }
+
+    private void appendTo(StringBuilder sb, int rate) {
+        // Read each field once, a booking on another desk may change the room meanwhile
+        Guest guest = this.guest;
+        Guest[] extraGuests = this.extraGuests;
+        sb.append("\nRoomID: ");
+        ReportRenderer.appendRoomId(sb, getRoomId());
+        sb.append("\nPrice: ").append(rate)
+                .append("\nOccupied: ").append(guest != null).append('\n');
+        if (guest != null) {
+            sb.append(extraGuests.length == 0 ? "Guest : " : "Guests : ").append(guest.getName());
             for (Guest g : extraGuests) {
-                System.out.print(", " + g.getName());
+                sb.append(", ").append(g.getName());
             }
-            System.out.print("\n ");
+            sb.append('\n');
         }
     }
 
-    void toStringPrices(){
-        String id = roomId > 100? roomId + "" : "00" + roomId;
-        System.out.println("RoomID: " + id + " Price: " + price);
+    /**
+     * Appends the id and price of the room on one line.
+     *
+     * @param sb The buffer to append to.
+     */
+    void appendPriceTo(StringBuilder sb) {
+        appendPriceTo(sb, hotel.priceTable);
+    }
+
+    /**
+     * Appends the id and the rate of the room from the given table on one line.
+     *
+     * @param sb The buffer to append to.
+     * @param rates The rates of the night to show, or null for the base price.
+     */
+    void appendPriceTo(StringBuilder sb, PriceTable rates) {
+        store.appendPrices(sb, ordinal, ordinal + 1, rates);
     }
 
     void addGuest(Guest guest) {
-        if((capacity - 1) == extraGuests.size()) throw new IllegalArgumentException("Room full");
-        extraGuests.add(guest);
-        guest.setRoom(this);
+        Lock lock = lock();
+        lock.lock();
+        try {
+            Guest[] current = extraGuests;
+            if((getCapacity() - 1) == current.length) throw new IllegalArgumentException("Room full");
+            Guest[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = guest;
+            store.beginChange(ordinal);
+            try {
+                extraGuests = updated;
+                guest.addRoom(this);
+            } finally {
+                store.endChange(ordinal);
+            }
+            hotel.guestAdded(this, guest);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the lock guarding this room's state: the hotel's lock for the room's floor.
+     *
+     * @return The lock for this room.
+     */
+    private Lock lock() {
+        return hotel.floorLock(getFloor());
     }
 
 }
@@ -0,0 +1,205 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Secondary indexes over the rooms of a hotel: the rooms by capacity, by price and by floor,
+ * each as sorted buckets of room ordinals. A search turns every criterion into a bit set of the rooms
+ * it allows, intersects them with each other and with the vacancy index, and only looks at the rooms left.
+ * A floor criterion also narrows every other bit set to the range of ordinals its floors cover,
+ * so a search on a few floors of a large hotel only touches the rooms of those floors.
+ * Rooms are added with every floor lock held; searches take no lock of this index.
+ */
+public class RoomIndex {
+    private final Attribute byCapacity = new Attribute();
+    private final Attribute byPrice = new Attribute();
+    private final Attribute byFloor = new Attribute();
+    // Number of rooms added, written after their buckets
+    private volatile int size;
+
+    /**
+     * Rooms sharing one value of an indexed attribute, as their ordinals in ascending order.
+     * Kept as a plain array, a bit set would take a bit for every room added before the bucket's last one.
+     * The count is written after the ordinal it covers and read before the array, so a reader
+     * always finds at least as many ordinals as the count it read.
+     */
+    private static final class Bucket {
+        private volatile int[] ordinals = new int[4];
+        private volatile int count;
+
+        void add(int ordinal) {
+            int n = count;
+            int[] ordinals = this.ordinals;
+            if (n == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, n * 2);
+                this.ordinals = ordinals;
+            }
+            ordinals[n] = ordinal;
+            count = n + 1;
+        }
+
+        /**
+         * Sets the bits of the rooms in the bucket with ordinals from lo up to hi, shifted down by lo.
+         *
+         * @param set The bit set to add to.
+         * @param lo The lowest ordinal to add, and the ordinal of bit 0.
+         * @param hi The ordinal after the highest to add.
+         */
+        void addTo(BitSet set, int lo, int hi) {
+            int n = count;
+            int[] ordinals = this.ordinals;
+            int i = Arrays.binarySearch(ordinals, 0, n, lo);
+            for (i = i < 0 ? -i - 1 : i; i < n && ordinals[i] < hi; i++) {
+                set.set(ordinals[i] - lo);
+            }
+        }
+    }
+
+    /**
+     * The buckets of one attribute, sorted by value.
+     */
+    private static final class Attribute {
+        private final ConcurrentSkipListMap<Integer, Bucket> buckets = new ConcurrentSkipListMap<>();
+        // Rooms are mostly added in runs sharing a value, such as a floor, so the last bucket is kept at hand
+        private int lastValue;
+        private Bucket lastBucket;
+
+        void add(int value, int ordinal) {
+            if (lastBucket == null || value != lastValue) {
+                lastBucket = buckets.computeIfAbsent(value, v -> new Bucket());
+                lastValue = value;
+            }
+            lastBucket.add(ordinal);
+        }
+    }
+
+    /**
+     * Adds a room to the indexes.
+     *
+     * @param room The room, already added to the vacancy index.
+     */
+    synchronized void add(Room room) {
+        byCapacity.add(room.getCapacity(), room.getOrdinal());
+        byPrice.add(room.getPrice(), room.getOrdinal());
+        byFloor.add(room.getFloor(), room.getOrdinal());
+        size = Math.max(size, room.getOrdinal() + 1);
+    }
+
+    /**
+     * Finds the rooms matching the query.
+     * Each criterion is turned into a bit set from whichever is smaller, the buckets it allows or the ones it
+     * rules out, so a criterion that allows nearly every room costs as little as one that allows very few.
+     * A criterion that rules out no room is skipped.
+     *
+     * @param query The search criteria.
+     * @param vacancies The vacancy index of the same hotel.
+     * @param rates The hotel's current rates, or null if it charges the base prices.
+     * @return The matching rooms, in the order they were added.
+     */
+    List<Room> search(RoomQuery query, VacancyIndex vacancies, PriceTable rates) {
+        int lo = 0;
+        int hi = size;
+        BitSet matches = null;
+        if (query.minFloor > query.maxFloor) {
+            return List.of();
+        }
+        NavigableMap<Integer, Bucket> floors = byFloor.buckets.subMap(query.minFloor, true, query.maxFloor, true);
+        if (floors.isEmpty()) {
+            return List.of();
+        }
+        if (!byFloor.buckets.headMap(query.minFloor).isEmpty() || !byFloor.buckets.tailMap(query.maxFloor, false).isEmpty()) {
+            // Rooms of one floor are mostly added together, so the floors cover a narrow range of ordinals
+            lo = Integer.MAX_VALUE;
+            hi = 0;
+            for (Bucket bucket : floors.values()) {
+                int n = bucket.count;
+                int[] ordinals = bucket.ordinals;
+                if (n == 0) {
+                    continue; // Created for a room that is being added right now
+                }
+                lo = Math.min(lo, ordinals[0]);
+                hi = Math.max(hi, ordinals[n - 1] + 1);
+            }
+            if (lo >= hi) {
+                return List.of();
+            }
+            matches = new BitSet(hi - lo);
+            for (Bucket bucket : floors.values()) {
+                bucket.addTo(matches, lo, hi);
+            }
+        }
+        ConcurrentSkipListMap<Integer, Bucket> capacities = byCapacity.buckets;
+        matches = restrict(matches, capacities.tailMap(query.minCapacity, true).values(),
+                capacities.headMap(query.minCapacity, false).values(), lo, hi);
+        // The index holds base prices; a rate is at least half the base price, so no room with a base price
+        // above twice the rate limit can match, and the rates of the rest are checked below
+        int maxBasePrice = rates == null ? query.maxPrice : (int) Math.min(Integer.MAX_VALUE, 2L * query.maxPrice + 1);
+        ConcurrentSkipListMap<Integer, Bucket> prices = byPrice.buckets;
+        matches = restrict(matches, prices.headMap(maxBasePrice, true).values(),
+                prices.tailMap(maxBasePrice, false).values(), lo, hi);
+        if (query.freeOnly) {
+            BitSet free = vacancies.freeRooms(lo, hi);
+            if (matches == null) {
+                matches = free;
+            } else {
+                matches.and(free);
+            }
+        }
+        if (matches == null) {
+            matches = new BitSet(hi - lo);
+            matches.set(0, hi - lo);
+        }
+        List<Room> result = vacancies.rooms(matches, lo);
+        // A room may have been booked since the vacancy index was read, and its rate may be above the limit
+        result.removeIf(room -> !query.matches(room));
+        return result;
+    }
+
+    /**
+     * Narrows the matches so far to the rooms one criterion allows.
+     *
+     * @param matches The rooms matched so far, shifted down by lo, or null if every room in the range matched.
+     * @param allowed The buckets the criterion allows.
+     * @param ruledOut The buckets the criterion rules out.
+     * @param lo The lowest ordinal searched.
+     * @param hi The ordinal after the highest searched.
+     * @return The rooms that match the criterion as well, or null if every room in the range still does.
+     */
+    private static BitSet restrict(BitSet matches, Collection<Bucket> allowed, Collection<Bucket> ruledOut, int lo, int hi) {
+        int ruledOutCount = count(ruledOut);
+        if (ruledOutCount == 0) {
+            return matches;
+        }
+        BitSet bits = new BitSet(hi - lo);
+        if (count(allowed) <= ruledOutCount) {
+            for (Bucket bucket : allowed) {
+                bucket.addTo(bits, lo, hi);
+            }
+            if (matches == null) {
+                return bits;
+            }
+            matches.and(bits);
+        } else {
+            for (Bucket bucket : ruledOut) {
+                bucket.addTo(bits, lo, hi);
+            }
+            if (matches == null) {
+                matches = new BitSet(hi - lo);
+                matches.set(0, hi - lo);
+            }
+            matches.andNot(bits);
+        }
+        return matches;
+    }
+
+    private static int count(Collection<Bucket> buckets) {
+        int count = 0;
+        for (Bucket bucket : buckets) {
+            count += bucket.count;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Criteria for a room search. Every criterion is optional; by default only free rooms match.
+ */
+public class RoomQuery {
+    int minCapacity = Integer.MIN_VALUE;
+    int maxPrice = Integer.MAX_VALUE;
+    int minFloor = Integer.MIN_VALUE;
+    int maxFloor = Integer.MAX_VALUE;
+    boolean freeOnly = true;
+
+    /**
+     * Only match rooms for at least the given number of guests.
+     *
+     * @param capacity The minimum capacity.
+     * @return This query.
+     */
+    public RoomQuery minCapacity(int capacity) {
+        this.minCapacity = capacity;
+        return this;
+    }
+
+    /**
+     * Only match rooms whose nightly rate today, as shown by the search, is at most the given price.
+     *
+     * @param price The maximum rate.
+     * @return This query.
+     */
+    public RoomQuery maxPrice(int price) {
+        this.maxPrice = price;
+        return this;
+    }
+
+    /**
+     * Only match rooms on the given range of floors.
+     *
+     * @param from The lowest floor.
+     * @param to The highest floor.
+     * @return This query.
+     */
+    public RoomQuery floors(int from, int to) {
+        this.minFloor = from;
+        this.maxFloor = to;
+        return this;
+    }
+
+    /**
+     * Match occupied rooms as well as free ones.
+     *
+     * @return This query.
+     */
+    public RoomQuery includeOccupied() {
+        this.freeOnly = false;
+        return this;
+    }
+
+    /**
+     * Checks if a room meets all the criteria.
+     *
+     * @param room The room to check.
+     * @return True if the room matches.
+     */
+    boolean matches(Room room) {
+        return room.getCapacity() >= minCapacity && room.getRate() <= maxPrice
+                && room.getFloor() >= minFloor && room.getFloor() <= maxFloor
+                && !(freeOnly && room.isOccupied());
+    }
+}
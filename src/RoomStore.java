@@ -0,0 +1,205 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * The scalar state of the rooms of a hotel, one primitive array per attribute, indexed by room ordinal.
+ * Rooms read their id, capacity, price, check-in day and version from here, so a pass over all rooms, such as the
+ * price list, walks a few dense arrays instead of following a pointer to every room.
+ * The rows are kept in chunks of a fixed number of rooms that never move once allocated, so growing the store
+ * only copies the directory of chunks: a reader holding a chunk, or a booking writing a check-in day into one,
+ * is never left with a stale copy. Rooms are added one at a time; a room's row is filled before the size
+ * covering it is published, so readers that do not take the floor locks only ever see complete rows.
+ * The check-in days and versions may change from any thread, under the lock of the room's floor,
+ * and are published to readers that do not take that lock.
+ */
+public class RoomStore {
+    private static final VarHandle DAYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle VERSIONS = MethodHandles.arrayElementVarHandle(int[].class);
+    // Rooms per chunk, a power of two
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // Number of complete rows, written after the row it adds
+    private volatile int size;
+    // Chunks by ordinal / CHUNK_SIZE; replaced by a longer copy when it runs out
+    private volatile Chunk[] chunks;
+
+    /**
+     * The rows of CHUNK_SIZE consecutive rooms.
+     */
+    private static final class Chunk {
+        final int[] roomIds = new int[CHUNK_SIZE];
+        final int[] capacities = new int[CHUNK_SIZE];
+        final int[] prices = new int[CHUNK_SIZE];
+        // Check-in epoch day of the current or last stay
+        final long[] checkInDays = new long[CHUNK_SIZE];
+        // Nightly rate in force when the current or last stay began, guarded by the lock of the room's floor
+        final int[] stayRates = new int[CHUNK_SIZE];
+        // Odd while the occupancy of a room is being changed, even otherwise, see beginChange
+        final int[] versions = new int[CHUNK_SIZE];
+        final Room[] rooms = new Room[CHUNK_SIZE];
+    }
+
+    /**
+     * Constructs an empty store.
+     *
+     * @param capacity The number of rooms to make room for.
+     */
+    public RoomStore(int capacity) {
+        chunks = new Chunk[0];
+        ensureCapacity(Math.max(capacity, 1));
+    }
+
+    /**
+     * Adds the row of a room and creates the room viewing it.
+     *
+     * @param hotel The hotel the room belongs to.
+     * @param roomId The ID of the room.
+     * @param capacity The capacity of the room.
+     * @param price The price of the room.
+     * @return The new room.
+     */
+    synchronized Room add(Hotel hotel, int roomId, int capacity, int price) {
+        int ordinal = size;
+        ensureCapacity(ordinal + 1);
+        Chunk chunk = chunks[ordinal >>> CHUNK_SHIFT];
+        int row = ordinal & CHUNK_MASK;
+        chunk.roomIds[row] = roomId;
+        chunk.capacities[row] = capacity;
+        chunk.prices[row] = price;
+        Room room = new Room(hotel, ordinal);
+        chunk.rooms[row] = room;
+        size = ordinal + 1;
+        return room;
+    }
+
+    /**
+     * Makes room for the given number of rooms in total, so adding them does not allocate on the way.
+     * Only the directory of chunks is copied, the rows stay where they are.
+     *
+     * @param capacity The number of rooms the store is expected to hold.
+     */
+    synchronized void ensureCapacity(int capacity) {
+        Chunk[] chunks = this.chunks;
+        int needed = (capacity + CHUNK_MASK) >>> CHUNK_SHIFT;
+        if (needed > chunks.length) {
+            // The directory holds a reference per thousand rooms, so copying it on every new chunk costs little
+            Chunk[] grown = Arrays.copyOf(chunks, needed);
+            for (int i = chunks.length; i < needed; i++) {
+                grown[i] = new Chunk();
+            }
+            this.chunks = grown;
+        }
+    }
+
+    /**
+     * Returns the number of rooms.
+     *
+     * @return The number of rooms.
+     */
+    int size() {
+        return size;
+    }
+
+    Room room(int ordinal) {
+        return chunk(ordinal).rooms[ordinal & CHUNK_MASK];
+    }
+
+    int roomId(int ordinal) {
+        return chunk(ordinal).roomIds[ordinal & CHUNK_MASK];
+    }
+
+    int capacity(int ordinal) {
+        return chunk(ordinal).capacities[ordinal & CHUNK_MASK];
+    }
+
+    int price(int ordinal) {
+        return chunk(ordinal).prices[ordinal & CHUNK_MASK];
+    }
+
+    long checkInDay(int ordinal) {
+        return (long) DAYS.getAcquire(chunk(ordinal).checkInDays, ordinal & CHUNK_MASK);
+    }
+
+    void setCheckInDay(int ordinal, long epochDay) {
+        DAYS.setRelease(chunk(ordinal).checkInDays, ordinal & CHUNK_MASK, epochDay);
+    }
+
+    int stayRate(int ordinal) {
+        return chunk(ordinal).stayRates[ordinal & CHUNK_MASK];
+    }
+
+    void setStayRate(int ordinal, int rate) {
+        chunk(ordinal).stayRates[ordinal & CHUNK_MASK] = rate;
+    }
+
+    int version(int ordinal) {
+        return (int) VERSIONS.getAcquire(chunk(ordinal).versions, ordinal & CHUNK_MASK);
+    }
+
+    /**
+     * Tells whether a room is still at the given version, and was not being changed when it was read.
+     * Reads made before the call are not reordered after it, so what was read since the version
+     * was taken is consistent if this holds.
+     *
+     * @param ordinal The ordinal of the room.
+     * @param version The version read before.
+     * @return True if the room was not changing at that version and has not changed since.
+     */
+    boolean isVersion(int ordinal, int version) {
+        VarHandle.loadLoadFence();
+        return (version & 1) == 0 && version(ordinal) == version;
+    }
+
+    /**
+     * Marks a room as being changed, making its version odd, as the write side of a sequence lock.
+     * Called under the lock of the room's floor before the first write of the change, which cannot be
+     * reordered before this; endChange must follow.
+     *
+     * @param ordinal The ordinal of the room.
+     */
+    void beginChange(int ordinal) {
+        int[] versions = chunk(ordinal).versions;
+        int row = ordinal & CHUNK_MASK;
+        VERSIONS.setOpaque(versions, row, (int) VERSIONS.get(versions, row) + 1);
+        VarHandle.storeStoreFence();
+    }
+
+    /**
+     * Marks the change of a room as done, making its version even again and publishing the change.
+     *
+     * @param ordinal The ordinal of the room.
+     */
+    void endChange(int ordinal) {
+        int[] versions = chunk(ordinal).versions;
+        int row = ordinal & CHUNK_MASK;
+        VERSIONS.setRelease(versions, row, (int) VERSIONS.get(versions, row) + 1);
+    }
+
+    /**
+     * Appends the id and price of every room, one line per room, in the order the rooms were added.
+     *
+     * @param sb The buffer to append to.
+     * @param from The ordinal of the first room to append.
+     * @param to The ordinal after the last room to append.
+     * @param rates The current rates, or null for the base prices.
+     */
+    void appendPrices(StringBuilder sb, int from, int to, PriceTable rates) {
+        for (int ordinal = from; ordinal < to; ) {
+            Chunk chunk = chunk(ordinal);
+            int end = Math.min(to, (ordinal | CHUNK_MASK) + 1);
+            for (; ordinal < end; ordinal++) {
+                int row = ordinal & CHUNK_MASK;
+                int base = chunk.prices[row];
+                int price = rates == null ? base : rates.rate(ordinal, base);
+                ReportRenderer.appendRoomId(sb.append("RoomID: "), chunk.roomIds[row]).append(" Price: ").append(price).append('\n');
+            }
+        }
+    }
+
+    private Chunk chunk(int ordinal) {
+        return chunks[ordinal >>> CHUNK_SHIFT];
+    }
+}
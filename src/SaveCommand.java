@@ -0,0 +1,30 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+
+public class SaveCommand extends Command {
+    // Null when the hotel is not kept on disk
+    private final HotelStore store;
+
+    public SaveCommand(HotelStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void execute() {
+        execute(new String[0], hotel.out);
+    }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        if (store == null) {
+            throw new IllegalStateException("Saving is off, start with --data <directory>");
+        }
+        try {
+            store.save();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save: " + e.getMessage(), e);
+        }
+        out.println("Saved");
+    }
+}
@@ -0,0 +1,43 @@
+import java.io.PrintWriter;
+import java.util.List;
+
+public class SearchCommand extends Command {
+    private static final String USAGE = "Usage: search [mincap=<n>] [maxprice=<n>] [floor=<n>|<from>-<to>] [all]";
+
+    @Override
+    public void execute() {
+        execute(new String[0], hotel.out);
+    }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        RoomQuery query = new RoomQuery();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = eq < 0 ? arg : arg.substring(0, eq);
+            String value = eq < 0 ? "" : arg.substring(eq + 1);
+            try {
+                switch (key) {
+                    case "mincap" -> query.minCapacity(Integer.parseInt(value));
+                    case "maxprice" -> query.maxPrice(Integer.parseInt(value));
+                    case "floor" -> {
+                        int dash = value.indexOf('-', 1);
+                        int from = Integer.parseInt(dash < 0 ? value : value.substring(0, dash));
+                        query.floors(from, dash < 0 ? from : Integer.parseInt(value.substring(dash + 1)));
+                    }
+                    case "all" -> query.includeOccupied();
+                    default -> throw new IllegalArgumentException(USAGE);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(USAGE);
+            }
+        }
+        List<Room> rooms = hotel.search(query);
+        out.println("Rooms found: " + rooms.size());
+        ReportRenderer renderer = new ReportRenderer(out);
+        for (Room room : rooms) {
+            renderer.price(room);
+        }
+        renderer.flush();
+    }
+}
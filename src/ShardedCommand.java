@@ -0,0 +1,70 @@
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+/**
+ * A console command run against a sharded hotel, see Main's --shards option.
+ * A sharded hotel offers the room commands, the listings and the figures; one instance serves one command name.
+ */
+public class ShardedCommand extends Command {
+    /** The names of the commands a sharded hotel offers. */
+    static final String[] NAMES = {"checkin", "checkout", "view", "list", "prices", "stats"};
+
+    private final ShardedHotel sharded;
+    private final String name;
+
+    /**
+     * Constructs a command.
+     *
+     * @param sharded The hotel the command works on.
+     * @param name The name of the command, one of NAMES.
+     * @throws IllegalArgumentException If a sharded hotel has no command of that name.
+     */
+    public ShardedCommand(ShardedHotel sharded, String name) {
+        if (!Arrays.asList(NAMES).contains(name)) {
+            throw new IllegalArgumentException("No sharded command: " + name);
+        }
+        this.sharded = sharded;
+        this.name = name;
+    }
+
+    @Override
+    public void execute() {
+        PrintWriter out = new PrintWriter(System.out, true);
+        if (name.equals("list") || name.equals("prices") || name.equals("stats")) {
+            execute(new String[0], out);
+            return;
+        }
+        out.println("Pass the arguments of " + name + ": ...");
+        execute(BatchRunner.tokenize(Hotel.CONSOLE.nextLine()), out);
+    }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        switch (name) {
+            case "checkin" -> {
+                if (args.length < 2) {
+                    throw new IllegalArgumentException("Usage: checkin <room> <guest> [guest...]");
+                }
+                sharded.checkIn(Hotel.parseRoomId(args[0]), Arrays.asList(args).subList(1, args.length), out);
+            }
+            case "checkout" -> {
+                if (args.length != 1) {
+                    throw new IllegalArgumentException("Usage: checkout <room>");
+                }
+                sharded.checkOut(Hotel.parseRoomId(args[0]), out);
+            }
+            case "view" -> {
+                if (args.length != 1) {
+                    throw new IllegalArgumentException("Usage: view <room>");
+                }
+                sharded.view(Hotel.parseRoomId(args[0]), out);
+            }
+            case "list" -> sharded.list(out);
+            case "prices" -> sharded.prices(out);
+            default -> {
+                out.println("Occupied rooms: " + sharded.occupiedRooms() + ", free rooms: " + sharded.freeRooms());
+                out.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,432 @@
+import java.io.Closeable;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * A hotel split by floor into independent shards, for properties too busy for one set of structures.
+ * Every shard is a hotel of its own holding the floors whose number leaves the shard's index when divided
+ * by the number of shards. Every shard is driven by its own thread only, which runs all its changes and
+ * reads, so a shard is built without floor locks, see Hotel(GuestDirectory). An operation on one room goes
+ * straight to the shard owning its floor, so operations on different shards never wait for each other.
+ * Hotel-wide operations are scattered to every shard at once and their results gathered in shard order;
+ * the reports are rendered by all shards in parallel and written out shard by shard.
+ * The shards share one guest directory, so a guest is found whichever shard they stay in.
+ */
+public class ShardedHotel implements Closeable {
+    private final Hotel[] shards;
+    private final ExecutorService[] executors;
+    private final GuestDirectory guests = new GuestDirectory();
+    // Shard auto-assignment starts looking in, moved on by every booking to spread the guests
+    private final AtomicInteger nextShard = new AtomicInteger();
+    // Number of floors generated so far, guarded by this
+    private int floorCount;
+
+    /**
+     * Constructs a hotel with the given number of empty shards.
+     *
+     * @param shardCount The number of shards, typically the number of cores.
+     * @throws IllegalArgumentException If the number of shards is not positive.
+     */
+    public ShardedHotel(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive.");
+        }
+        shards = new Hotel[shardCount];
+        executors = new ExecutorService[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Hotel(guests);
+            String name = "hotel-shard-" + i;
+            executors[i] = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return The number of shards.
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Generates rooms on new floors, numbered on from the floors generated before.
+     * Each shard generates its own floors, all shards at once.
+     *
+     * @param floors The number of floors to add.
+     * @param roomsPerFloor The number of rooms per floor.
+     * @param capacity The capacity of each room.
+     * @param price The price of each room.
+     * @throws IllegalArgumentException If floors or roomsPerFloor is not positive, or roomsPerFloor is above 99.
+     */
+    public synchronized void generateRooms(int floors, int roomsPerFloor, int capacity, int price) {
+        if (floors <= 0 || roomsPerFloor <= 0) {
+            throw new IllegalArgumentException("Floors and roomsPerFloor must be positive integers.");
+        }
+        if (roomsPerFloor > Hotel.MAX_ROOMS_PER_FLOOR) {
+            throw new IllegalArgumentException("At most " + Hotel.MAX_ROOMS_PER_FLOOR + " rooms per floor.");
+        }
+        int firstFloor = floorCount;
+        scatter(shard -> () -> {
+            Hotel hotel = shards[shard];
+            hotel.ensureRoomCapacity(hotel.rooms.size() + (floors / shards.length + 1) * roomsPerFloor);
+            hotel.lockAllFloors();
+            try {
+                for (int floor = firstFloor; floor < firstFloor + floors; floor++) {
+                    if (shardOf(floor) != shard) continue;
+                    for (int room = 0; room < roomsPerFloor; room++) {
+                        hotel.addRoomLocked(floor, capacity, price);
+                    }
+                }
+            } finally {
+                hotel.unlockAllFloors();
+            }
+            return null;
+        });
+        floorCount += floors;
+    }
+
+    /**
+     * Rents a free room to a guest in the shard with the most free rooms.
+     * The free rooms of all shards are counted at once; ties go to the shards in turn, to spread the guests.
+     * If other desks took the shard's last rooms meanwhile, the shard with the most free rooms after it is tried.
+     *
+     * @param guestName The name of the guest.
+     * @return The ID of the rented room.
+     * @throws IllegalArgumentException If no room is free.
+     */
+    public int rentRoom(String guestName) {
+        List<Integer> free = scatter(shard -> () -> shards[shard].freeRooms());
+        int start = Math.floorMod(nextShard.getAndIncrement(), shards.length);
+        while (true) {
+            int best = -1;
+            for (int i = 0; i < shards.length; i++) {
+                int shard = (start + i) % shards.length;
+                if (free.get(shard) > 0 && (best < 0 || free.get(shard) > free.get(best))) {
+                    best = shard;
+                }
+            }
+            if (best < 0) {
+                throw new IllegalArgumentException("No free room found");
+            }
+            int shard = best;
+            Room room = call(shard, () -> shards[shard].assignRoom(shards[shard].guest(guestName)));
+            if (room != null) {
+                return room.getRoomId();
+            }
+            free.set(shard, 0);
+        }
+    }
+
+    /**
+     * Rents a specific room to a guest.
+     *
+     * @param guestName The name of the guest.
+     * @param roomId The ID of the room.
+     * @throws IllegalArgumentException If the room is not found, occupied or reserved for another guest.
+     */
+    public void rentRoom(String guestName, int roomId) {
+        int shard = shardOfRoom(roomId);
+        call(shard, () -> shards[shard].rentRoom(shards[shard].guest(guestName), roomId));
+    }
+
+    /**
+     * Checks the guests out of a room.
+     *
+     * @param roomId The ID of the room.
+     * @return The charge for the stay.
+     * @throws IllegalArgumentException If the room is not found or not occupied.
+     */
+    public long checkOut(int roomId) {
+        int shard = shardOfRoom(roomId);
+        return call(shard, () -> {
+            Room room = shards[shard].rooms.get(roomId);
+            if (room == null) {
+                throw new IllegalArgumentException("Room not found.");
+            }
+            long charge = room.checkOut();
+            shards[shard].metrics.checkedOut();
+            return charge;
+        });
+    }
+
+    /**
+     * Checks guests into a specific room.
+     *
+     * @param roomId The ID of the room.
+     * @param guestNames The names of the guests, the first one being the main guest.
+     * @param out The writer to print the confirmation to.
+     * @throws IllegalArgumentException If the room is not found or cannot take the guests.
+     */
+    public void checkIn(int roomId, List<String> guestNames, PrintWriter out) {
+        int shard = shardOfRoom(roomId);
+        call(shard, () -> shards[shard].checkIn(roomId, guestNames, out));
+        out.flush();
+    }
+
+    /**
+     * Checks the guests out of a room.
+     *
+     * @param roomId The ID of the room.
+     * @param out The writer to print the charge to.
+     * @throws IllegalArgumentException If the room is not found or not occupied.
+     */
+    public void checkOut(int roomId, PrintWriter out) {
+        int shard = shardOfRoom(roomId);
+        call(shard, () -> shards[shard].checkOut(roomId, out));
+        out.flush();
+    }
+
+    /**
+     * Returns the room a guest is staying in, in any shard.
+     *
+     * @param name The name of the guest.
+     * @return The room, or null if the guest is not staying in the hotel.
+     */
+    public Room findGuestRoom(String name) {
+        Guest guest = guests.find(name);
+        return guest == null ? null : guest.getRoom();
+    }
+
+    /**
+     * Prints the details of a room.
+     *
+     * @param roomId The ID of the room.
+     * @param out The writer to print to.
+     * @throws IllegalArgumentException If the room is not found.
+     */
+    public void view(int roomId, PrintWriter out) {
+        int shard = shardOfRoom(roomId);
+        call(shard, () -> shards[shard].view(Integer.toString(roomId), out));
+        out.flush();
+    }
+
+    /**
+     * Lists all rooms, shard by shard. The shards render their rooms all at once.
+     *
+     * @param out The writer to print to.
+     */
+    public void list(PrintWriter out) {
+        report(out, Hotel::list);
+    }
+
+    /**
+     * Prints the prices of all rooms, shard by shard. The shards render their prices all at once.
+     *
+     * @param out The writer to print to.
+     */
+    public void prices(PrintWriter out) {
+        report(out, (hotel, renderer) -> renderer.prices(hotel.store, hotel.priceTable));
+    }
+
+    /**
+     * Returns the number of occupied rooms over all shards.
+     *
+     * @return The number of occupied rooms.
+     */
+    public long occupiedRooms() {
+        long occupied = 0;
+        for (long shard : scatter(shard -> () -> shards[shard].stats.getOccupiedRooms())) {
+            occupied += shard;
+        }
+        return occupied;
+    }
+
+    /**
+     * Returns the number of free rooms over all shards.
+     *
+     * @return The number of free rooms.
+     */
+    public long freeRooms() {
+        long free = 0;
+        for (int shard : scatter(shard -> () -> shards[shard].freeRooms())) {
+            free += shard;
+        }
+        return free;
+    }
+
+    /**
+     * Stops the shard threads once the work already sent to them is done.
+     */
+    @Override
+    public void close() {
+        for (ExecutorService executor : executors) {
+            executor.shutdown();
+        }
+    }
+
+    private int shardOf(int floor) {
+        return Math.floorMod(floor, shards.length);
+    }
+
+    private int shardOfRoom(int roomId) {
+        return shardOf(roomId / 100);
+    }
+
+    // Runs the task on the shard's thread and waits for it, rethrowing what it threw
+    private <T> T call(int shard, Callable<T> task) {
+        return await(executors[shard].submit(task));
+    }
+
+    // Runs a task on every shard at once and returns the results in shard order
+    private <T> List<T> scatter(IntFunction<Callable<T>> task) {
+        List<Future<T>> futures = new ArrayList<>(shards.length);
+        for (int shard = 0; shard < shards.length; shard++) {
+            futures.add(executors[shard].submit(task.apply(shard)));
+        }
+        List<T> results = new ArrayList<>(shards.length);
+        for (Future<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    /**
+     * Renders a report on every shard at once and writes the parts out in shard order.
+     * Each shard renders into a short queue of chunks, which the caller empties when the shard's turn comes;
+     * a shard whose queue is full waits for its turn, so only a few chunks per shard are held at a time.
+     */
+    private void report(PrintWriter out, BiConsumer<Hotel, ReportRenderer> render) {
+        ShardReport[] parts = new ShardReport[shards.length];
+        List<Future<Object>> futures = new ArrayList<>(shards.length);
+        for (int shard = 0; shard < shards.length; shard++) {
+            ShardReport part = parts[shard] = new ShardReport();
+            Hotel hotel = shards[shard];
+            futures.add(executors[shard].submit(() -> {
+                try {
+                    ReportRenderer renderer = new ReportRenderer(new PrintWriter(part), ShardReport.CHUNK_SIZE);
+                    render.accept(hotel, renderer);
+                    renderer.flush();
+                } finally {
+                    part.end();
+                }
+                return null;
+            }));
+        }
+        try {
+            for (int shard = 0; shard < shards.length; shard++) {
+                parts[shard].writeTo(out, futures.get(shard));
+            }
+            out.flush();
+        } finally {
+            // Lets the shards finish at once if the caller stopped early
+            for (ShardReport part : parts) {
+                part.abandon();
+            }
+        }
+        for (Future<Object> future : futures) {
+            await(future);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shard", e);
+        }
+    }
+
+    /**
+     * The part of a report rendered by one shard, handed from the shard's thread to the caller in chunks.
+     * The caller hands every chunk back once written, so a part reuses the same few buffers throughout.
+     */
+    private static final class ShardReport extends Writer {
+        // Characters a shard renders before handing them over, smaller than a whole report's chunks as
+        // every shard rendering at once holds its own buffers
+        static final int CHUNK_SIZE = ReportRenderer.DEFAULT_CHUNK_SIZE / 4;
+        // Chunks rendered and not yet written out
+        private static final int CHUNKS = 2;
+        // Marks the end of the part
+        private static final CharBuffer END = CharBuffer.allocate(0);
+
+        private final BlockingQueue<CharBuffer> chunks = new ArrayBlockingQueue<>(CHUNKS);
+        private final BlockingQueue<CharBuffer> spare = new ArrayBlockingQueue<>(CHUNKS + 1);
+        private volatile boolean abandoned;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            if (len == 0) {
+                return;
+            }
+            CharBuffer chunk = spare.poll();
+            if (chunk == null || chunk.capacity() < len) {
+                chunk = CharBuffer.allocate(len);
+            }
+            chunk.clear();
+            chunk.put(cbuf, off, len).flip();
+            put(chunk);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        void end() {
+            put(END);
+        }
+
+        // Called by the caller once it no longer reads the part, so the shard stops waiting for room
+        void abandon() {
+            abandoned = true;
+            chunks.clear();
+        }
+
+        // Writes the part out as it arrives, until the shard has rendered all of it or its task has ended
+        void writeTo(PrintWriter out, Future<?> task) {
+            try {
+                while (true) {
+                    CharBuffer chunk = chunks.poll(100, TimeUnit.MILLISECONDS);
+                    if (chunk == END || chunk == null && task.isDone() && chunks.isEmpty()) {
+                        return;
+                    }
+                    if (chunk != null) {
+                        out.write(chunk.array(), 0, chunk.limit());
+                        spare.offer(chunk);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a shard", e);
+            }
+        }
+
+        private void put(CharBuffer chunk) {
+            try {
+                while (!abandoned && !chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                    // Waiting for the caller to reach this shard
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
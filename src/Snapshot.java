@@ -0,0 +1,228 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+/**
+ * Binary image of the full state of a hotel: its guests, every room with its occupancy, and the reservations.
+ * The file is written through a channel and read through a memory mapping. Rooms are stored as fixed-width
+ * records, so reading one is a handful of absolute gets instead of parsing. A snapshot is never written over
+ * a file that may still be mapped; see HotelStore for how files are named.
+ *
+ * Reading takes time linear in the rooms and guests, with no parsing, but not the few milliseconds
+ * first aimed for: every room is still created and registered in the hotel's room maps and indexes, and
+ * every guest in its directory. With 500k rooms, half of them occupied, a restore takes about 0.4-0.5 s
+ * in a warm JVM and up to 1.5-1.9 s as the first work of a fresh one. Most of it goes to
+ * lookups in the room maps and indexes, not to creating the rooms, so creating rooms lazily would only
+ * pay off with those maps and the guests of occupied rooms kept by ordinal as well.
+ *
+ * Layout:
+ * a header, then one record per room, then the indexes of the extra guests of all rooms,
+ * then one record per reservation, then the end offsets of the guest names, then the UTF-8 bytes of the names.
+ * Guests are referred to by their index in the name table, -1 for none.
+ */
+public class Snapshot {
+    private static final int MAGIC = 0x484F544C; // "HOTL"
+    private static final int VERSION = 3;
+    // magic, version, room count, guest count, extra guest slot count, name bytes, reservation count
+    private static final int HEADER_SIZE = 28;
+    // floor, id, capacity, price, occupied, check-in epoch day, guest, first extra guest slot, extra guest count
+    private static final int ROOM_SIZE = 40;
+    // Field offsets within a room record, in the order they are written
+    private static final int FLOOR = 0;
+    private static final int ROOM_ID = 4;
+    private static final int CAPACITY = 8;
+    private static final int PRICE = 12;
+    private static final int OCCUPIED = 16;
+    private static final int CHECK_IN_DAY = 20;
+    private static final int GUEST = 28;
+    private static final int FIRST_EXTRA = 32;
+    private static final int EXTRA_COUNT = 36;
+    // room id, guest, arrival epoch day, departure epoch day
+    private static final int RESERVATION_SIZE = 24;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private Snapshot() {
+    }
+
+    /**
+     * Writes the state of the hotel to the file and forces it to disk.
+     * Rooms must not change while the snapshot is written.
+     *
+     * @param hotel The hotel to write.
+     * @param file The file to write to, which must not be mapped; replaced if it exists.
+     * @throws IOException If writing fails or the hotel is too large for one file.
+     */
+    public static void write(Hotel hotel, Path file) throws IOException {
+        // Number every guest, registered or only known through a room
+        MyMap<String, Integer> guestIndexes = new MyMap<>();
+        for (String name : hotel.guests.names()) {
+            guestIndexes.put(name, guestIndexes.size());
+        }
+        int roomCount = hotel.rooms.size();
+        int extraSlots = 0;
+        int reservations = 0;
+        for (Room room : hotel.rooms.valueView()) {
+            for (Reservation reservation : room.getReservations()) {
+                index(guestIndexes, reservation.getGuest());
+                reservations++;
+            }
+            if (room.getGuest() != null) {
+                index(guestIndexes, room.getGuest());
+                for (Guest g : room.getExtraGuests()) {
+                    index(guestIndexes, g);
+                    extraSlots++;
+                }
+            }
+        }
+        byte[][] names = new byte[guestIndexes.size()][];
+        int nameBytes = 0;
+        int n = 0;
+        for (String name : guestIndexes.keyView()) {
+            names[n] = name.getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[n++].length;
+        }
+
+        long size = HEADER_SIZE + (long) roomCount * ROOM_SIZE + 4L * extraSlots
+                + (long) reservations * RESERVATION_SIZE + 4L * names.length + nameBytes;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Hotel too large for a snapshot");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(roomCount).putInt(names.length)
+                    .putInt(extraSlots).putInt(nameBytes).putInt(reservations);
+            int slot = 0;
+            for (Room room : hotel.rooms.valueView()) {
+                reserve(channel, buffer, ROOM_SIZE);
+                Guest guest = room.getGuest();
+                buffer.putInt(room.getFloor()).putInt(room.getRoomId()).putInt(room.getCapacity()).putInt(room.getPrice())
+                        .putInt(guest == null ? 0 : 1)
+                        .putLong(guest == null ? 0 : room.getCheckInDate().toEpochDay())
+                        .putInt(guest == null ? -1 : guestIndexes.get(guest.getName()));
+                int extraCount = guest == null ? 0 : room.getExtraGuests().length;
+                buffer.putInt(slot).putInt(extraCount);
+                slot += extraCount;
+            }
+            for (Room room : hotel.rooms.valueView()) {
+                if (room.getGuest() == null) {
+                    continue;
+                }
+                for (Guest g : room.getExtraGuests()) {
+                    reserve(channel, buffer, 4);
+                    buffer.putInt(guestIndexes.get(g.getName()));
+                }
+            }
+            for (Room room : hotel.rooms.valueView()) {
+                for (Reservation reservation : room.getReservations()) {
+                    reserve(channel, buffer, RESERVATION_SIZE);
+                    buffer.putInt(room.getRoomId()).putInt(guestIndexes.get(reservation.getGuest().getName()))
+                            .putLong(reservation.getFromDay()).putLong(reservation.getToDay());
+                }
+            }
+            int end = 0;
+            for (byte[] name : names) {
+                end += name.length;
+                reserve(channel, buffer, 4);
+                buffer.putInt(end);
+            }
+            for (byte[] name : names) {
+                for (int from = 0; from < name.length; ) {
+                    reserve(channel, buffer, 1);
+                    int count = Math.min(buffer.remaining(), name.length - from);
+                    buffer.put(name, from, count);
+                    from += count;
+                }
+            }
+            drain(channel, buffer);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reads a snapshot into an empty hotel.
+     * The hotel must not have a journal attached while reading.
+     *
+     * @param file The file to read.
+     * @param hotel The empty hotel to fill.
+     * @throws IOException If the file cannot be read or is not a hotel snapshot.
+     */
+    public static void read(Path file, Hotel hotel) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a hotel snapshot: " + file);
+        }
+        int roomCount = buffer.getInt(8);
+        int guestCount = buffer.getInt(12);
+        int extraSlots = buffer.getInt(16);
+        int reservations = buffer.getInt(24);
+        int slotBase = HEADER_SIZE + roomCount * ROOM_SIZE;
+        int reservationBase = slotBase + 4 * extraSlots;
+        int nameEnds = reservationBase + reservations * RESERVATION_SIZE;
+        int nameBase = nameEnds + 4 * guestCount;
+
+        hotel.ensureRoomCapacity(roomCount);
+        Guest[] guests = new Guest[guestCount];
+        int start = 0;
+        for (int i = 0; i < guestCount; i++) {
+            int end = buffer.getInt(nameEnds + 4 * i);
+            byte[] name = new byte[end - start];
+            buffer.get(nameBase + start, name);
+            guests[i] = hotel.guest(new String(name, StandardCharsets.UTF_8));
+            start = end;
+        }
+        for (int record = HEADER_SIZE; record < slotBase; record += ROOM_SIZE) {
+            Room room = hotel.restoreRoom(buffer.getInt(record + FLOOR), buffer.getInt(record + ROOM_ID),
+                    buffer.getInt(record + CAPACITY), buffer.getInt(record + PRICE));
+            if (buffer.getInt(record + OCCUPIED) == 0) {
+                continue;
+            }
+            room.tryRent(guests[buffer.getInt(record + GUEST)], LocalDate.ofEpochDay(buffer.getLong(record + CHECK_IN_DAY)));
+            int firstExtra = buffer.getInt(record + FIRST_EXTRA);
+            int extraCount = buffer.getInt(record + EXTRA_COUNT);
+            for (int i = firstExtra; i < firstExtra + extraCount; i++) {
+                room.addGuest(guests[buffer.getInt(slotBase + 4 * i)]);
+            }
+        }
+        for (int record = reservationBase; record < nameEnds; record += RESERVATION_SIZE) {
+            Guest guest = guests[buffer.getInt(record + 4)];
+            hotel.rooms.get(buffer.getInt(record)).addReservation(
+                    new Reservation(guest, buffer.getLong(record + 8), buffer.getLong(record + 16)));
+        }
+    }
+
+    /**
+     * Makes room in the buffer for the given number of bytes, writing out what it holds if it is too full.
+     *
+     * @param channel The channel to write to.
+     * @param buffer The buffer, in write mode.
+     * @param bytes The number of bytes about to be put, at most the buffer's capacity.
+     * @throws IOException If writing fails.
+     */
+    private static void reserve(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void index(MyMap<String, Integer> guestIndexes, Guest guest) {
+        if (!guestIndexes.containsKey(guest.getName())) {
+            guestIndexes.put(guest.getName(), guestIndexes.size());
+        }
+    }
+}
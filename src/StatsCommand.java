@@ -0,0 +1,25 @@
+import java.io.PrintWriter;
+import java.time.LocalDate;
+
+public class StatsCommand extends Command {
+    @Override
+    public void execute() {
+        execute(new String[0], hotel.out);
+    }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        boolean perFloor = args.length == 1 && args[0].equals("floors");
+        if (args.length > 1 || (args.length == 1 && !perFloor)) {
+            throw new IllegalArgumentException("Usage: stats [floors]");
+        }
+        LocalDate today = LocalDate.now();
+        StringBuilder sb = new StringBuilder(128);
+        hotel.stats.appendTo(sb, today).append('\n');
+        if (perFloor) {
+            hotel.floorStats.forEach((floor, stats) -> stats.appendTo(sb.append("Floor ").append(floor).append(": "), today).append('\n'));
+        }
+        out.append(sb);
+        out.flush();
+    }
+}
@@ -0,0 +1,55 @@
+import java.io.PrintWriter;
+
+/**
+ * Runs another command and records how long it took, and whether it failed, in the hotel's metrics.
+ */
+public class TimedCommand extends Command {
+    private final Command command;
+    private final LatencyHistogram latency;
+    private final HotelMetrics metrics;
+
+    /**
+     * Constructs a command timing the given one.
+     *
+     * @param command The command to run.
+     * @param latency The histogram to record the latencies into.
+     * @param metrics The metrics to count failures in.
+     */
+    public TimedCommand(Command command, LatencyHistogram latency, HotelMetrics metrics) {
+        this.command = command;
+        this.latency = latency;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void setHotel(Hotel hotel) {
+        super.setHotel(hotel);
+        command.setHotel(hotel);
+    }
+
+    @Override
+    public void execute() {
+        long start = System.nanoTime();
+        try {
+            command.execute();
+        } catch (RuntimeException e) {
+            metrics.commandFailed();
+            throw e;
+        } finally {
+            latency.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        long start = System.nanoTime();
+        try {
+            command.execute(args, out);
+        } catch (RuntimeException e) {
+            metrics.commandFailed();
+            throw e;
+        } finally {
+            latency.record(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Keeps track of which rooms of a hotel are free.
+ * Every room gets a dense ordinal when it is added, and the free rooms are kept as set bits,
+ * so finding a free room does not need to look at the occupied ones.
+ * All methods are synchronized; rooms update the index while holding their floor lock.
+ */
+public class VacancyIndex {
+    // Rooms by ordinal
+    private final RoomStore rooms;
+    // Bit set for every free room
+    private final BitSet free = new BitSet();
+    private int freeCount;
+    // No room with a lower ordinal than this is free
+    private int firstFreeHint;
+
+    /**
+     * Constructs an empty index over the rooms of a store.
+     *
+     * @param rooms The store the rooms are added to.
+     */
+    VacancyIndex(RoomStore rooms) {
+        this.rooms = rooms;
+    }
+
+    /**
+     * Adds a room to the index.
+     *
+     * @param room The room to add, already in the store.
+     */
+    synchronized void add(Room room) {
+        if (!room.isOccupied()) {
+            markFree(room.getOrdinal());
+        }
+    }
+
+    /**
+     * Marks the room with the given ordinal as occupied.
+     *
+     * @param ordinal The ordinal of the room.
+     */
+    synchronized void markOccupied(int ordinal) {
+        if (free.get(ordinal)) {
+            free.clear(ordinal);
+            freeCount--;
+        }
+    }
+
+    /**
+     * Marks the room with the given ordinal as free.
+     *
+     * @param ordinal The ordinal of the room.
+     */
+    synchronized void markFree(int ordinal) {
+        if (!free.get(ordinal)) {
+            free.set(ordinal);
+            freeCount++;
+            if (ordinal < firstFreeHint) firstFreeHint = ordinal;
+        }
+    }
+
+    /**
+     * Returns the free room that was added first.
+     *
+     * @return The first free room, or null if every room is occupied.
+     */
+    synchronized Room firstFree() {
+        if (freeCount == 0) {
+            return null;
+        }
+        firstFreeHint = free.nextSetBit(firstFreeHint);
+        return rooms.room(firstFreeHint);
+    }
+
+    /**
+     * Returns the first free room with an ordinal of at least the given one.
+     *
+     * @param fromOrdinal The ordinal to start looking from.
+     * @return The free room, or null if there is none from that ordinal on.
+     */
+    synchronized Room nextFree(int fromOrdinal) {
+        if (freeCount == 0) {
+            return null;
+        }
+        if (fromOrdinal <= firstFreeHint) {
+            return firstFree();
+        }
+        int ordinal = free.nextSetBit(fromOrdinal);
+        return ordinal < 0 ? null : rooms.room(ordinal);
+    }
+
+    /**
+     * Returns the room with the given ordinal.
+     *
+     * @param ordinal The ordinal of the room.
+     * @return The room.
+     */
+    synchronized Room room(int ordinal) {
+        return rooms.room(ordinal);
+    }
+
+    /**
+     * Returns the number of rooms in the index.
+     *
+     * @return The number of rooms.
+     */
+    synchronized int size() {
+        return rooms.size();
+    }
+
+    /**
+     * Returns the ordinals of the free rooms.
+     *
+     * @return A new bit set with a bit set for every free room.
+     */
+    synchronized BitSet freeRooms() {
+        return (BitSet) free.clone();
+    }
+
+    /**
+     * Returns which rooms in a range of ordinals are free, such as the rooms of a few floors.
+     *
+     * @param from The lowest ordinal.
+     * @param to The ordinal after the highest.
+     * @return A new bit set with a bit set for every free room, shifted down by from.
+     */
+    synchronized BitSet freeRooms(int from, int to) {
+        return free.get(from, to);
+    }
+
+    /**
+     * Returns the rooms with the given ordinals.
+     *
+     * @param ordinals The ordinals, shifted down by offset.
+     * @param offset The ordinal of bit 0.
+     * @return A new list of the rooms, by ordinal.
+     */
+    synchronized List<Room> rooms(BitSet ordinals, int offset) {
+        List<Room> result = new ArrayList<>(ordinals.cardinality());
+        for (int i = ordinals.nextSetBit(0); i >= 0; i = ordinals.nextSetBit(i + 1)) {
+            result.add(rooms.room(offset + i));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of free rooms.
+     *
+     * @return The number of free rooms.
+     */
+    synchronized int freeCount() {
+        return freeCount;
+    }
+}
@@ -1,7 +1,17 @@
+import java.io.PrintWriter;
+
 public class ViewCommand extends Command {
 
     @Override
     public void execute() {
         hotel.view();
     }
+
+    @Override
+    public void execute(String[] args, PrintWriter out) {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: view <room|all>");
+        }
+        hotel.view(args[0], out);
+    }
 }
@@ -0,0 +1,46 @@
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How an event consumer waits when it has caught up with the publishers.
+ * Spinning reacts fastest and burns a core, sleeping is the cheapest and adds latency.
+ */
+public enum WaitStrategy {
+    /** Spins on the CPU; lowest latency, one busy core per consumer. */
+    BUSY_SPIN {
+        @Override
+        void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+    /** Spins for a while, then yields the CPU to other threads. */
+    YIELDING {
+        @Override
+        void idle(int attempt) {
+            if (attempt < 100) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+    /** Spins, yields, then parks for increasing intervals up to a millisecond. */
+    SLEEPING {
+        @Override
+        void idle(int attempt) {
+            if (attempt < 100) {
+                Thread.onSpinWait();
+            } else if (attempt < 200) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(Math.min(1_000_000L, 1000L << Math.min(attempt - 200, 10)));
+            }
+        }
+    };
+
+    /**
+     * Waits once for new events.
+     *
+     * @param attempt The number of times the consumer has waited since it last found events.
+     */
+    abstract void idle(int attempt);
+}
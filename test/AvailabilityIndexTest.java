@@ -0,0 +1,41 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AvailabilityIndexTest {
+    private final long today = LocalDate.now().toEpochDay();
+
+    @Test
+    void reservedDaysAreTakenUntilReleased() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        index.reserve(1, today + 2, today + 5);
+        assertEquals(bits(0, 2), index.free(3, today + 4, today + 6));
+        assertEquals(bits(0, 1, 2), index.free(3, today, today + 2));
+        index.release(1, today + 2, today + 5);
+        assertEquals(bits(0, 1, 2), index.free(3, today + 4, today + 6));
+    }
+
+    @Test
+    void pastDaysAreDroppedAndNotKeptAgain() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        index.reserve(0, today, today + 10);
+        index.reserve(1, today + 8, today + 12);
+        index.prune(today + 9);
+        assertEquals(bits(0, 1), index.free(2, today, today + 8));
+        assertEquals(bits(), index.free(2, today + 9, today + 10));
+        // A stay read back from a snapshot may start long before the days that are kept
+        index.reserve(1, today - 30, today + 2);
+        assertEquals(bits(0, 1), index.free(2, today - 30, today + 8));
+    }
+
+    private static BitSet bits(int... ordinals) {
+        BitSet bits = new BitSet();
+        for (int ordinal : ordinals) {
+            bits.set(ordinal);
+        }
+        return bits;
+    }
+}
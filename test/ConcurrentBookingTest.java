@@ -0,0 +1,78 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConcurrentBookingTest {
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 20_000;
+
+    /**
+     * Many desks rent, look up and check out the same few rooms at once. Every desk that rents a room claims it
+     * in a table of its own; a claim that finds the room already claimed would be a double booking.
+     */
+    @Test
+    void noRoomIsRentedTwice() throws Exception {
+        Hotel hotel = new Hotel().generateRooms(4, 8, 2, 100);
+        int rooms = hotel.store.size();
+        AtomicIntegerArray owners = new AtomicIntegerArray(rooms);
+        AtomicInteger doubleBookings = new AtomicInteger();
+        LocalDate today = LocalDate.now();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService desks = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 1; t <= THREADS; t++) {
+                int desk = t;
+                done.add(desks.submit(() -> {
+                    Guest guest = hotel.guest("Desk " + desk);
+                    SplittableRandom random = new SplittableRandom(desk);
+                    List<Room> mine = new ArrayList<>();
+                    start.await();
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        Room room = random.nextBoolean() ? hotel.assignRoom(guest) : hotel.store.room(random.nextInt(rooms));
+                        if (room != null && (room.getGuest() == guest || room.tryRent(guest))) {
+                            if (!mine.contains(room)) {
+                                if (!owners.compareAndSet(room.getOrdinal(), 0, desk)) {
+                                    doubleBookings.incrementAndGet();
+                                }
+                                mine.add(room);
+                            }
+                        }
+                        if (!mine.isEmpty() && random.nextInt(3) == 0) {
+                            Room leaving = mine.remove(random.nextInt(mine.size()));
+                            // Give the room up before it is free, so the next desk to rent it finds no claim
+                            owners.set(leaving.getOrdinal(), 0);
+                            leaving.checkOut(today);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            desks.shutdown();
+        }
+        assertEquals(0, doubleBookings.get());
+        int occupied = 0;
+        for (int ordinal = 0; ordinal < rooms; ordinal++) {
+            occupied += hotel.store.room(ordinal).isOccupied() ? 1 : 0;
+        }
+        assertEquals(occupied, hotel.stats.getOccupiedRooms());
+        assertEquals(rooms - occupied, hotel.freeRooms());
+        assertEquals(occupied, hotel.stats.getGuestsInHouse());
+    }
+}
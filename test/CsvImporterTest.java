@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvImporterTest {
+    private final PrintWriter out = new PrintWriter(new StringWriter());
+
+    @Test
+    void eachFailingRoomLineIsReportedAndSkipped() throws Exception {
+        Hotel hotel = new Hotel();
+        StringWriter errors = new StringWriter();
+        CsvImporter importer = new CsvImporter(hotel, CsvImporter.Kind.ROOMS, 2);
+        int failed = importer.run(reader("""
+                floor,capacity,price
+                1,2,100
+                1,x,100
+
+                # a comment
+                1,2
+                -1,2,100
+                2,4,250
+                """), new PrintWriter(errors));
+        assertEquals(3, failed);
+        assertEquals(2, importer.getImported());
+        assertEquals(List.of("Line 3: Invalid number: x", "Line 6: Expected 3 field(s), found 2.",
+                "Line 7: Floor and price must not be negative, capacity at least 1."), errors.toString().lines().toList());
+        assertEquals(250, hotel.rooms.get(201).getPrice());
+    }
+
+    @Test
+    void staysThatCannotBeAppliedAreReportedByLine() throws Exception {
+        Hotel hotel = new Hotel().generateRooms(1, 2, 2, 100);
+        String today = LocalDate.now().toString();
+        StringWriter errors = new StringWriter();
+        int failed = new CsvImporter(hotel, CsvImporter.Kind.STAYS, 2).run(reader(
+                "1,Ann;Bob," + today + "\n"
+                        + "7,Cat," + today + "\n"
+                        + "2,Dan;Eve;Fay," + today + "\n"
+                        + "1,Gus," + today + "\n"
+                        + "2,Hal,2024-13-01\n"
+                        + "2,Ida;Ida," + today + "\n"), new PrintWriter(errors));
+        assertEquals(5, failed);
+        assertEquals(List.of("Line 2: Room not found: 7", "Line 3: Room 2 holds at most 2 guests.",
+                "Line 4: Room 1 is occupied or reserved for another guest.", "Line 5: Invalid date: 2024-13-01, use YYYY-MM-DD",
+                "Line 6: A guest is listed twice."), errors.toString().lines().toList());
+        assertEquals(1, hotel.findGuestRoom("Bob").getRoomId());
+        assertFalse(hotel.rooms.get(2).isOccupied());
+    }
+
+    @Test
+    void lineNumbersCountAcrossChunks() throws Exception {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 1; i <= 20000; i++) {
+            lines.append(i == 12345 ? "Ann,Bob" : "Guest" + i).append('\n');
+        }
+        Hotel hotel = new Hotel();
+        StringWriter errors = new StringWriter();
+        CsvImporter importer = new CsvImporter(hotel, CsvImporter.Kind.GUESTS, 2);
+        assertEquals(1, importer.run(reader(lines.toString()), new PrintWriter(errors)));
+        assertEquals(19999, importer.getImported());
+        assertEquals("Line 12345: Expected 1 field(s), found 2.", errors.toString().strip());
+    }
+
+    @Test
+    void roomsCannotBeImportedOnceTheRoomsAreFixed() {
+        Hotel hotel = new Hotel().generateRooms(1, 2, 2, 100);
+        hotel.fixRooms();
+        assertThrows(IllegalStateException.class,
+                () -> new CsvImporter(hotel, CsvImporter.Kind.ROOMS).run(reader("1,2,100\n"), out));
+        assertThrows(IllegalStateException.class, () -> hotel.addRoom(1, 2, 100));
+        assertEquals(2, hotel.rooms.size());
+    }
+
+    private static BufferedReader reader(String text) {
+        return new BufferedReader(new StringReader(text));
+    }
+}
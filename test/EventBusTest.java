@@ -0,0 +1,79 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventBusTest {
+    private static final int PUBLISHERS = 4;
+    private static final int EVENTS_PER_PUBLISHER = 50_000;
+
+    @Test
+    void everyConsumerSeesEveryEventInOrder() throws Exception {
+        // A ring far smaller than the events, so publishers wrap it many times and wait for the consumers
+        EventBus bus = new EventBus(256);
+        List<Recorder> recorders = new ArrayList<>();
+        WaitStrategy[] strategies = {WaitStrategy.BUSY_SPIN, WaitStrategy.YIELDING, WaitStrategy.SLEEPING, WaitStrategy.SLEEPING};
+        for (int i = 0; i < strategies.length; i++) {
+            Recorder recorder = new Recorder();
+            recorders.add(recorder);
+            bus.addConsumer("consumer-" + i, recorder, strategies[i]);
+        }
+        List<Thread> publishers = new ArrayList<>();
+        for (int p = 0; p < PUBLISHERS; p++) {
+            int roomId = p + 1;
+            Thread publisher = new Thread(() -> {
+                for (int i = 0; i < EVENTS_PER_PUBLISHER; i++) {
+                    bus.publish(HotelEvent.RENTED, roomId, "Guest", i, i);
+                }
+            });
+            publisher.start();
+            publishers.add(publisher);
+        }
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+        bus.close();
+
+        long expectedAmounts = PUBLISHERS * ((long) EVENTS_PER_PUBLISHER * (EVENTS_PER_PUBLISHER - 1) / 2);
+        for (Recorder recorder : recorders) {
+            assertEquals(PUBLISHERS * EVENTS_PER_PUBLISHER, recorder.count);
+            assertEquals(expectedAmounts, recorder.amounts);
+            assertTrue(recorder.inOrder);
+            assertTrue(recorder.lastEndedBatch);
+            for (int p = 0; p < PUBLISHERS; p++) {
+                assertEquals(EVENTS_PER_PUBLISHER, recorder.perRoom[p + 1]);
+            }
+        }
+    }
+
+    @Test
+    void aRingSizeMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new EventBus(100));
+    }
+
+    /**
+     * Counts what it sees; only touched by its consumer thread until the bus is closed.
+     */
+    private static class Recorder implements EventHandler {
+        final int[] perRoom = new int[PUBLISHERS + 1];
+        int count;
+        long amounts;
+        long lastSequence = -1;
+        boolean inOrder = true;
+        boolean lastEndedBatch;
+
+        @Override
+        public void onEvent(HotelEvent event, long sequence, boolean endOfBatch) {
+            inOrder &= sequence == lastSequence + 1;
+            lastSequence = sequence;
+            count++;
+            amounts += event.getAmount();
+            perRoom[event.getRoomId()]++;
+            lastEndedBatch = endOfBatch;
+        }
+    }
+}
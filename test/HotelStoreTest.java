@@ -0,0 +1,83 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotelStoreTest {
+    @TempDir
+    Path directory;
+
+    private final PrintWriter out = new PrintWriter(new StringWriter());
+
+    @Test
+    void savedAndJournaledChangesAreRestored() throws Exception {
+        try (HotelStore store = new HotelStore(directory)) {
+            Hotel hotel = new Hotel();
+            assertFalse(store.open(hotel));
+            hotel.generateRooms(2, 3, 2, 100);
+            hotel.checkIn(1, List.of("Ann", "Bob"), out);
+            store.save();
+            hotel.checkIn(102, List.of("Cat"), out);
+            hotel.checkOut(1, out);
+        }
+        Hotel restored = new Hotel();
+        try (HotelStore store = new HotelStore(directory)) {
+            assertTrue(store.open(restored));
+        }
+        assertEquals(6, restored.rooms.size());
+        assertNull(restored.findGuestRoom("Ann"));
+        assertEquals(102, restored.findGuestRoom("Cat").getRoomId());
+        assertEquals(LocalDate.now(), restored.findGuestRoom("Cat").getCheckInDate());
+    }
+
+    @Test
+    void eachSaveStartsANewGenerationAndDropsTheOldOne() throws Exception {
+        try (HotelStore store = new HotelStore(directory)) {
+            Hotel hotel = new Hotel();
+            store.open(hotel);
+            hotel.generateRooms(1, 2, 2, 100);
+            store.save();
+            hotel.checkIn(1, List.of("Ann"), out);
+            store.save();
+        }
+        assertEquals(List.of("hotel.journal.2", "hotel.snapshot.2"), files());
+    }
+
+    @Test
+    void aJournalIsNotReplayedOverALaterSnapshot() throws Exception {
+        try (HotelStore store = new HotelStore(directory)) {
+            Hotel hotel = new Hotel();
+            store.open(hotel);
+            hotel.generateRooms(1, 2, 2, 100);
+            hotel.checkIn(1, List.of("Ann"), out);
+            store.save();
+            hotel.checkOut(1, out);
+        }
+        // As if the process died after writing the next snapshot, before its journal was started:
+        // journal 1 only applies to snapshot 1, so the check-out in it must be left out
+        Files.copy(directory.resolve("hotel.snapshot.1"), directory.resolve("hotel.snapshot.2"));
+        Hotel restored = new Hotel();
+        try (HotelStore store = new HotelStore(directory)) {
+            store.open(restored);
+        }
+        assertEquals(2, restored.rooms.size());
+        assertEquals(1, restored.findGuestRoom("Ann").getRoomId());
+        assertEquals(List.of("hotel.journal.2", "hotel.snapshot.2"), files());
+    }
+
+    private List<String> files() throws Exception {
+        try (var names = Files.list(directory)) {
+            return names.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HotelTest {
+    private final PrintWriter out = new PrintWriter(new StringWriter());
+
+    @Test
+    void checkInAddsTheWholeParty() {
+        Hotel hotel = new Hotel().generateRooms(1, 2, 3, 100);
+        hotel.checkIn(1, List.of("Ann", "Bob", "Cid"), out);
+        Room room = hotel.rooms.get(1);
+        assertEquals("Ann", room.getGuest().getName());
+        assertEquals(2, room.getExtraGuests().length);
+        assertEquals(3, hotel.stats.getGuestsInHouse());
+    }
+
+    @Test
+    void checkInOfTooLargeAPartyChangesNothing() {
+        Hotel hotel = new Hotel().generateRooms(1, 2, 2, 100);
+        assertThrows(IllegalArgumentException.class, () -> hotel.checkIn(1, List.of("Ann", "Bob", "Cid"), out));
+        Room room = hotel.rooms.get(1);
+        assertFalse(room.isOccupied());
+        assertNull(hotel.findGuestRoom("Ann"));
+        assertEquals(0, hotel.stats.getOccupiedRooms());
+        assertEquals(2, hotel.freeRooms());
+    }
+
+    @Test
+    void checkInRejectsAGuestListedTwice() {
+        Hotel hotel = new Hotel().generateRooms(1, 2, 4, 100);
+        assertThrows(IllegalArgumentException.class, () -> hotel.checkIn(1, List.of("Ann", "Bob", "Ann"), out));
+        assertFalse(hotel.rooms.get(1).isOccupied());
+    }
+
+    @Test
+    void checkInOfAnOccupiedRoomKeepsItsGuests() {
+        Hotel hotel = new Hotel().generateRooms(1, 2, 4, 100);
+        hotel.checkIn(1, List.of("Ann"), out);
+        assertThrows(IllegalArgumentException.class, () -> hotel.checkIn(1, List.of("Bob", "Cid"), out));
+        Room room = hotel.rooms.get(1);
+        assertEquals("Ann", room.getGuest().getName());
+        assertEquals(0, room.getExtraGuests().length);
+        assertNull(hotel.findGuestRoom("Bob"));
+    }
+
+    @Test
+    void generatingOverATakenRoomIdAddsNothing() {
+        Hotel hotel = new Hotel().addRoom(5, 2, 100);
+        // Floors 1 to 5 would be generated, and 501 is taken
+        assertThrows(IllegalArgumentException.class, () -> hotel.generateRooms(5, 2, 2, 100));
+        assertEquals(1, hotel.rooms.size());
+        assertEquals(1, hotel.freeRooms());
+        assertEquals(501, hotel.rooms.get(501).getRoomId());
+    }
+
+    @Test
+    void restoringATakenRoomIdFails() {
+        Hotel hotel = new Hotel();
+        hotel.restoreRoom(3, 301, 2, 100);
+        assertThrows(IllegalArgumentException.class, () -> hotel.restoreRoom(3, 301, 4, 200));
+        assertEquals(1, hotel.rooms.size());
+        assertEquals(2, hotel.rooms.get(301).getCapacity());
+    }
+
+    @Test
+    void generatingAMillionRoomsNumbersThemByFloor() {
+        Hotel hotel = new Hotel().generateRooms(10102, 99, 4, 100);
+        assertEquals(1_000_098, hotel.rooms.size());
+        assertEquals(1_000_098, hotel.freeRooms());
+        assertEquals(1010199, hotel.rooms.get(1010199).getRoomId());
+        assertEquals(99, hotel.floors.get(10101).size());
+    }
+
+    @Test
+    void aGuestInTwoRoomsKeepsTheOtherAfterCheckingOutOfOne() {
+        Hotel hotel = new Hotel().generateRooms(1, 3, 2, 100);
+        hotel.checkIn(1, List.of("Ann"), out);
+        hotel.checkIn(2, List.of("Bob", "Ann"), out);
+        assertEquals(List.of(hotel.rooms.get(1), hotel.rooms.get(2)), hotel.guest("Ann").getRooms());
+        hotel.checkOut(1, out);
+        assertEquals(List.of(hotel.rooms.get(2)), hotel.guest("Ann").getRooms());
+        assertEquals(2, hotel.findGuestRoom("Ann").getRoomId());
+        hotel.checkOut(2, out);
+        assertNull(hotel.findGuestRoom("Ann"));
+    }
+
+    @Test
+    void aGroupGetsAdjacentRoomsNeitherOccupiedNorReservedToday() {
+        Hotel hotel = new Hotel().generateRooms(2, 6, 2, 100);
+        hotel.checkIn(2, List.of("Ann"), out);
+        hotel.reserve("Bob", 4, LocalDate.now(), LocalDate.now().plusDays(2));
+        List<Room> rooms = hotel.bookGroup(List.of("Cat", "Dan", "Eve", "Fay"), 2);
+        assertEquals(List.of(5, 6), rooms.stream().map(Room::getRoomId).toList());
+        assertEquals(List.of(101, 102, 103), hotel.bookGroup(List.of("Gus", "Hal", "Ian"), 3).stream().map(Room::getRoomId).toList());
+    }
+
+    @Test
+    void aGroupListingAGuestTwiceIsRefused() {
+        Hotel hotel = new Hotel().generateRooms(1, 3, 2, 100);
+        assertThrows(IllegalArgumentException.class, () -> hotel.bookGroup(List.of("Smith", "Smith"), 2));
+        assertEquals(3, hotel.freeRooms());
+    }
+}
@@ -0,0 +1,40 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ImportCommandTest {
+    @TempDir
+    Path directory;
+
+    private final PrintWriter out = new PrintWriter(new StringWriter());
+
+    @Test
+    void aRemoteImportOnlyReadsFilesUnderItsDirectory() throws Exception {
+        Path imports = Files.createDirectory(directory.resolve("imports"));
+        Files.writeString(imports.resolve("guests.csv"), "Ann\nBob\n");
+        Path outside = Files.writeString(directory.resolve("secret.csv"), "Cat\n");
+        Hotel hotel = new Hotel();
+        ImportCommand command = new ImportCommand(imports);
+        command.setHotel(hotel);
+
+        command.execute(new String[]{"guests", "guests.csv"}, out);
+        assertThrows(IllegalArgumentException.class, () -> command.execute(new String[]{"guests", "../secret.csv"}, out));
+        assertThrows(IllegalArgumentException.class, () -> command.execute(new String[]{"guests", outside.toString()}, out));
+        assertEquals(2, hotel.guests.size());
+    }
+
+    @Test
+    void aRemoteImportWithoutADirectoryIsRefused() throws Exception {
+        Path file = Files.writeString(directory.resolve("guests.csv"), "Ann\n");
+        ImportCommand command = new ImportCommand(null);
+        command.setHotel(new Hotel());
+        assertThrows(IllegalArgumentException.class, () -> command.execute(new String[]{"guests", file.toString()}, out));
+    }
+}
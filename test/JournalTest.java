@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JournalTest {
+    @TempDir
+    Path directory;
+
+    private final PrintWriter out = new PrintWriter(new StringWriter());
+
+    @Test
+    void aChangeIsOnDiskWhenItsOperationReturns() throws Exception {
+        Path file = directory.resolve("hotel.journal");
+        Hotel hotel = new Hotel().generateRooms(1, 2, 2, 100);
+        try (Journal journal = new Journal(file)) {
+            hotel.journal = journal;
+            hotel.checkIn(1, List.of("Ann"), out);
+            // Rent: type, room id, check-in day, then the name as a two-byte length and its bytes
+            assertEquals(1 + 4 + 8 + 2 + 3, Files.size(file));
+            hotel.checkOut(1, out);
+            assertEquals(18 + 1 + 4 + 8, Files.size(file));
+        }
+    }
+
+    @Test
+    void changesFromManyDesksAreAllForcedAndReplayed() throws Exception {
+        Path file = directory.resolve("hotel.journal");
+        Hotel hotel = new Hotel();
+        ExecutorService desks = Executors.newFixedThreadPool(8);
+        try (Journal journal = new Journal(file)) {
+            hotel.journal = journal;
+            hotel.generateRooms(8, 10, 2, 100);
+            List<Future<?>> done = new ArrayList<>();
+            for (int floor = 0; floor < 8; floor++) {
+                int first = 100 * floor + 1;
+                done.add(desks.submit(() -> {
+                    for (int room = first; room < first + 10; room++) {
+                        hotel.checkIn(room, List.of("Guest " + room), out);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            desks.shutdown();
+        }
+        Hotel restored = new Hotel();
+        assertEquals(80 + 80, Journal.replay(file, restored));
+        assertEquals(80, restored.stats.getOccupiedRooms());
+        assertEquals("Guest 705", restored.rooms.get(705).getGuest().getName());
+    }
+
+    @Test
+    void closeWritesWhatIsLeft() throws Exception {
+        Path file = directory.resolve("hotel.journal");
+        Journal journal = new Journal(file);
+        journal.addRoom(0, 1, 2, 100);
+        journal.close();
+        Hotel restored = new Hotel();
+        assertEquals(1, Journal.replay(file, restored));
+        assertTrue(restored.rooms.containsKey(1));
+    }
+}
@@ -0,0 +1,47 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    @Test
+    void smallLatenciesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (int nanos = 1; nanos <= 10; nanos++) {
+            histogram.record(nanos);
+        }
+        assertEquals(10, histogram.getCount());
+        assertEquals(5, histogram.getP50Nanos());
+        assertEquals(10, histogram.getP99Nanos());
+        assertEquals(10, histogram.getMaxNanos());
+    }
+
+    @Test
+    void percentilesAreWithinThreePercent() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        assertWithin(50_000_000, histogram.getP50Nanos());
+        assertWithin(99_000_000, histogram.getP99Nanos());
+        assertWithin(99_900_000, histogram.getP999Nanos());
+        assertWithin(100_000_000, histogram.getMaxNanos());
+    }
+
+    @Test
+    void aNegativeLatencyCountsAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+    }
+
+    @Test
+    void anEmptyHistogramReportsZero() {
+        assertEquals(0, new LatencyHistogram("test").getP99Nanos());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.03, "expected about " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,108 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MyMapTest {
+    @Test
+    void putReplacesTheValueOfAKey() {
+        MyMap<String, Integer> map = new MyMap<>();
+        assertNull(map.put("a", 1));
+        assertEquals(1, map.put("a", 2));
+        assertEquals(2, map.get("a"));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void findsEveryKeyAfterGrowing() {
+        MyMap<Integer, Integer> map = new MyMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            map.put(i, -i);
+        }
+        assertEquals(100_000, map.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(-i, map.get(i));
+        }
+        assertFalse(map.containsKey(100_000));
+    }
+
+    @Test
+    void removedKeysAreGoneAndTheirSlotsReused() {
+        MyMap<Integer, String> map = new MyMap<>();
+        for (int round = 0; round < 1000; round++) {
+            map.put(round, "value");
+            assertEquals("value", map.remove(round));
+            assertFalse(map.containsKey(round));
+        }
+        assertTrue(map.isEmpty());
+        assertNull(map.remove(0));
+        map.put(7, "seven");
+        assertEquals("seven", map.get(7));
+    }
+
+    @Test
+    void keysAndValuesKeepInsertionOrderThroughRemovalsAndResizes() {
+        MyMap<String, Integer> map = new MyMap<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, i);
+            expected.add("key" + i);
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            map.remove("key" + i);
+            expected.remove("key" + i);
+        }
+        for (int i = 1000; i < 2000; i++) {
+            map.put("key" + i, i);
+            expected.add("key" + i);
+        }
+        assertEquals(expected, map.keys());
+        assertEquals(expected, new ArrayList<>(map.keyView()));
+        List<Integer> values = map.values();
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(Integer.parseInt(expected.get(i).substring(3)), values.get(i));
+        }
+    }
+
+    @Test
+    void nullKeysAndValuesAreAllowed() {
+        MyMap<String, String> map = new MyMap<>();
+        map.put(null, "null key");
+        map.put("null value", null);
+        assertEquals("null key", map.get(null));
+        assertTrue(map.containsKey("null value"));
+        assertTrue(map.containsValue(null));
+    }
+
+    @Test
+    void clearEmptiesTheMap() {
+        MyMap<Integer, Integer> map = new MyMap<>();
+        for (int i = 0; i < 50; i++) {
+            map.put(i, i);
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(1));
+        map.put(1, 1);
+        assertEquals(List.of(1), map.keys());
+    }
+
+    @Test
+    void viewsFailFastWhenTheMapChanges() {
+        MyMap<Integer, Integer> map = new MyMap<>();
+        map.put(1, 1);
+        map.put(2, 2);
+        Iterator<Integer> values = map.valueView().iterator();
+        values.next();
+        map.put(3, 3);
+        assertThrows(ConcurrentModificationException.class, values::next);
+    }
+}
@@ -0,0 +1,27 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OccupancyStatsTest {
+    @Test
+    void aStayIsCountedAndTakenOutAtTheRateItBeganWith() {
+        Hotel hotel = new Hotel().generateRooms(1, 2, 2, 100);
+        hotel.priceTable = new PriceTable(LocalDate.now().toEpochDay(), new int[] {150, 150});
+        Room room = hotel.rooms.get(1);
+        room.tryRent(new Guest("Ann"), LocalDate.now().minusDays(2));
+        assertEquals(150, hotel.stats.getNightlyRate());
+        assertEquals(300, hotel.stats.getAccruedRevenue(LocalDate.now()));
+
+        hotel.priceTable = new PriceTable(LocalDate.now().toEpochDay(), new int[] {90, 90});
+        room.setCheckInDate(LocalDate.now().minusDays(3));
+        assertEquals(450, hotel.stats.getAccruedRevenue(LocalDate.now()));
+        room.checkOut(LocalDate.now());
+
+        assertEquals(0, hotel.stats.getNightlyRate());
+        assertEquals(0, hotel.stats.getAccruedRevenue(LocalDate.now()));
+        assertEquals(0, hotel.floorStats.get(0).getNightlyRate());
+        assertEquals(0, hotel.floorStats.get(0).getAccruedRevenue(LocalDate.now()));
+    }
+}
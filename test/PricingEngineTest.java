@@ -0,0 +1,66 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PricingEngineTest {
+    private final LocalDate today = LocalDate.now();
+    private final PrintWriter out = new PrintWriter(new StringWriter());
+
+    @Test
+    void eachNightIsChargedAtTheRateOfThatNight() {
+        Hotel hotel = new Hotel().generateRooms(1, 2, 2, 100);
+        hotel.rateCalendar.put(new PriceTable(today.minusDays(2).toEpochDay(), new int[] {150, 150}));
+        hotel.rateCalendar.put(new PriceTable(today.toEpochDay(), new int[] {80, 80}));
+        Room room = hotel.rooms.get(1);
+        room.tryRent(new Guest("Ann"), today.minusDays(3));
+        // Three nights before today: unpriced, priced at 150, unpriced; today's rate is not charged
+        assertEquals(100 + 150 + 100, room.checkOut(today));
+    }
+
+    @Test
+    void repricingAnotherDayKeepsTodaysRates() {
+        Hotel hotel = new Hotel().generateRooms(1, 2, 2, 100);
+        PricingEngine engine = new PricingEngine(hotel);
+        PriceTable current = engine.reprice(today);
+        PriceTable ahead = engine.reprice(today.plusDays(10));
+        assertSame(current, hotel.priceTable);
+        assertSame(ahead, hotel.rateCalendar.get(today.plusDays(10).toEpochDay()));
+        assertSame(current, hotel.rateCalendar.get(today.toEpochDay()));
+    }
+
+    @Test
+    void aDayAheadIsPricedByItsReservationsNotByTodaysGuests() {
+        Hotel hotel = new Hotel().generateRooms(1, 4, 2, 100);
+        PricingEngine engine = new PricingEngine(hotel);
+        LocalDate ahead = today.plusDays(14);
+        PriceTable empty = engine.compute(ahead, today);
+        for (int roomId = 1; roomId <= 4; roomId++) {
+            hotel.checkIn(roomId, List.of("Guest" + roomId), out);
+        }
+        assertEquals(empty.rate(0, 100), engine.compute(ahead, today).rate(0, 100));
+
+        for (int roomId = 1; roomId <= 4; roomId++) {
+            hotel.reserve("Guest" + roomId, roomId, ahead, ahead.plusDays(1));
+        }
+        assertTrue(engine.compute(ahead, today).rate(0, 100) > empty.rate(0, 100));
+    }
+
+    @Test
+    void ratesOfNightsNoGuestCanBeChargedForAreDropped() {
+        Hotel hotel = new Hotel().generateRooms(1, 2, 2, 100);
+        hotel.rateCalendar.put(new PriceTable(today.minusDays(5).toEpochDay(), new int[] {150, 150}));
+        hotel.rateCalendar.put(new PriceTable(today.minusDays(2).toEpochDay(), new int[] {150, 150}));
+        hotel.rooms.get(2).tryRent(new Guest("Ann"), today.minusDays(3));
+        new PricingEngine(hotel).reprice(today);
+        assertEquals(2, hotel.rateCalendar.size());
+        assertNull(hotel.rateCalendar.get(today.minusDays(5).toEpochDay()));
+    }
+}
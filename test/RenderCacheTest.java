@@ -0,0 +1,39 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RenderCacheTest {
+    @Test
+    void aNewPriceTableOnlyReRendersTheRoomsWhoseRateItChanges() {
+        Hotel hotel = new Hotel().generateRooms(1, 2, 2, 100);
+        Room first = hotel.rooms.get(1);
+        Room second = hotel.rooms.get(2);
+        String firstText = first.render();
+        String secondText = second.render();
+        assertSame(firstText, first.render());
+
+        hotel.priceTable = new PriceTable(LocalDate.now().toEpochDay(), new int[] {100, 120});
+        assertSame(firstText, first.render());
+        assertNotSame(secondText, second.render());
+        assertTrue(second.render().contains("Price: 120"));
+    }
+
+    @Test
+    void aRoomRenderedWhileItChangesIsNotKept() {
+        Hotel hotel = new Hotel().generateRooms(1, 1, 2, 100);
+        Room room = hotel.rooms.get(1);
+        int version = hotel.store.version(room.getOrdinal());
+        hotel.store.beginChange(room.getOrdinal());
+        String during = room.render();
+        assertNotSame(during, room.render());
+        hotel.store.endChange(room.getOrdinal());
+        assertEquals(version + 2, hotel.store.version(room.getOrdinal()));
+        String after = room.render();
+        assertSame(after, room.render());
+    }
+}
@@ -0,0 +1,47 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoomIndexTest {
+    @Test
+    void everyCriterionNarrowsTheResult() {
+        Hotel hotel = new Hotel().generateRooms(4, 3, 2, 100);
+        hotel.addRoom(2, 4, 100);
+        hotel.addRoom(2, 4, 300);
+        hotel.addRoom(3, 4, 100);
+        hotel.rentRoom(new Guest("Ann"), 301);
+
+        assertEquals(List.of(204, 205), ids(hotel.search(new RoomQuery().minCapacity(3).floors(1, 2))));
+        assertEquals(List.of(204, 304), ids(hotel.search(new RoomQuery().minCapacity(3).maxPrice(150))));
+        assertEquals(List.of(302, 303, 304), ids(hotel.search(new RoomQuery().floors(3, 3))));
+        assertEquals(List.of(301, 302, 303, 304), ids(hotel.search(new RoomQuery().floors(3, 9).includeOccupied())));
+        assertEquals(List.of(), ids(hotel.search(new RoomQuery().floors(5, 9))));
+    }
+
+    @Test
+    void aCriterionMatchingNearlyEveryRoomIsAppliedByWhatItRulesOut() {
+        Hotel hotel = new Hotel().generateRooms(2, 50, 2, 100);
+        hotel.addRoom(0, 2, 500);
+        assertEquals(100, hotel.search(new RoomQuery().maxPrice(499)).size());
+        List<Room> floor = hotel.search(new RoomQuery().floors(0, 0).maxPrice(499));
+        assertEquals(50, floor.size());
+        assertEquals(50, floor.get(49).getRoomId());
+        assertEquals(51, hotel.search(new RoomQuery().floors(0, 0).maxPrice(500)).size());
+    }
+
+    @Test
+    void theMaximumPriceLimitsTheRateShown() {
+        Hotel hotel = new Hotel().generateRooms(1, 3, 2, 100);
+        hotel.addRoom(0, 2, 190);
+        hotel.priceTable = new PriceTable(LocalDate.now().toEpochDay(), new int[] {150, 80, 100, 95});
+        assertEquals(List.of(2, 4), ids(hotel.search(new RoomQuery().maxPrice(95))));
+        assertEquals(List.of(1, 2, 3, 4), ids(hotel.search(new RoomQuery().maxPrice(150))));
+    }
+
+    private static List<Integer> ids(List<Room> rooms) {
+        return rooms.stream().map(Room::getRoomId).toList();
+    }
+}
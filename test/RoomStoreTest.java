@@ -0,0 +1,52 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoomStoreTest {
+    @Test
+    void roomsAddedWhileOthersAreBookedAndReadLoseNoChange() throws Exception {
+        Hotel hotel = new Hotel().generateRooms(1, 1, 2, 100);
+        Room first = hotel.rooms.get(1);
+        Guest guest = hotel.guest("Ann");
+        LocalDate today = LocalDate.now();
+        AtomicBoolean adding = new AtomicBoolean(true);
+        AtomicInteger stays = new AtomicInteger();
+        AtomicInteger incompleteRows = new AtomicInteger();
+        Thread desk = new Thread(() -> {
+            while (adding.get()) {
+                first.tryRent(guest);
+                first.checkOut(today);
+                stays.incrementAndGet();
+            }
+        });
+        Thread reader = new Thread(() -> {
+            while (adding.get()) {
+                RoomStore store = hotel.store;
+                for (int ordinal = 0, size = store.size(); ordinal < size; ordinal++) {
+                    if (store.roomId(ordinal) == 0 || store.room(ordinal).getOrdinal() != ordinal) {
+                        incompleteRows.incrementAndGet();
+                    }
+                }
+            }
+        });
+        desk.start();
+        reader.start();
+        for (int floor = 1; floor <= 300; floor++) {
+            for (int room = 0; room < 99; room++) {
+                hotel.addRoom(floor, 2, 100);
+            }
+        }
+        adding.set(false);
+        desk.join();
+        reader.join();
+
+        assertEquals(0, incompleteRows.get());
+        // Check-in and check-out each make the version odd and then even again
+        assertEquals(4 * stays.get(), hotel.store.version(first.getOrdinal()));
+        assertEquals(1 + 300 * 99, hotel.store.size());
+    }
+}
@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardedHotelTest {
+    private final PrintWriter out = new PrintWriter(new StringWriter());
+
+    @Test
+    void aGuestIsFoundWhicheverShardTheyStayIn() {
+        try (ShardedHotel hotel = new ShardedHotel(2)) {
+            hotel.generateRooms(2, 2, 2, 100);
+            hotel.checkIn(102, List.of("Ann"), out);
+            hotel.checkIn(1, List.of("Ann", "Bob"), out);
+            assertEquals(102, hotel.findGuestRoom("Ann").getRoomId());
+            assertEquals(1, hotel.findGuestRoom("Bob").getRoomId());
+            hotel.checkOut(102, out);
+            assertEquals(1, hotel.findGuestRoom("Ann").getRoomId());
+            assertEquals(1, hotel.occupiedRooms());
+        }
+    }
+
+    @Test
+    void theListingHasEveryRoomShardByShard() {
+        try (ShardedHotel hotel = new ShardedHotel(3)) {
+            hotel.generateRooms(4, 2, 2, 100);
+            StringWriter sharded = new StringWriter();
+            hotel.list(new PrintWriter(sharded));
+            StringWriter expected = new StringWriter();
+            for (int floor : new int[]{0, 3, 1, 2}) {
+                Hotel single = new Hotel();
+                single.addRoom(floor, 2, 100).addRoom(floor, 2, 100).list(new PrintWriter(expected));
+            }
+            assertEquals(expected.toString(), sharded.toString());
+        }
+    }
+
+    @Test
+    void pricesLongerThanAShardsQueueArriveWhole() {
+        try (ShardedHotel hotel = new ShardedHotel(2)) {
+            hotel.generateRooms(200, 99, 2, 100);
+            StringWriter sharded = new StringWriter();
+            hotel.prices(new PrintWriter(sharded));
+            StringWriter expected = new StringWriter();
+            for (int shard = 0; shard < 2; shard++) {
+                Hotel single = new Hotel();
+                for (int floor = shard; floor < 200; floor += 2) {
+                    for (int room = 0; room < 99; room++) {
+                        single.addRoom(floor, 2, 100);
+                    }
+                }
+                single.prices(new PrintWriter(expected));
+            }
+            assertEquals(expected.toString(), sharded.toString());
+        }
+    }
+
+    @Test
+    void autoAssignmentPicksTheShardWithTheMostFreeRooms() {
+        try (ShardedHotel hotel = new ShardedHotel(2)) {
+            hotel.generateRooms(2, 2, 2, 100);
+            assertEquals(1, hotel.rentRoom("Ann"));
+            assertEquals(101, hotel.rentRoom("Bob"));
+            assertEquals(2, hotel.rentRoom("Cat"));
+            assertEquals(102, hotel.rentRoom("Dan"));
+            assertThrows(IllegalArgumentException.class, () -> hotel.rentRoom("Eve"));
+            assertEquals(4, hotel.occupiedRooms());
+            assertEquals(0, hotel.freeRooms());
+        }
+    }
+
+    @Test
+    void everyHotelReadsTheConsoleWithOneScanner() {
+        assertSame(new Hotel().scanner, new Hotel().scanner);
+    }
+}